@@ -1,3 +1,4 @@
+import exception.LocacaoDeveSerRenovada;
 import java.util.Arrays;
 
 import model.imobiliaria.Cobranca;
@@ -6,6 +7,10 @@ import model.imobiliaria.Locacao;
 import model.imobiliaria.LocacaoApartamento;
 import model.imobiliaria.LocacaoComercial;
 import model.imobiliaria.LocacaoResidencial;
+import util.DoubleBag;
+import util.FullBagException;
+import util.IntBag;
+import util.LongBag;
 
 class App {
 
@@ -67,6 +72,17 @@ class App {
     // PATCH:
     System.out.println(loc3.getMeses() == 6); // 6 meses, porque foi contratado e é comercial!
 
+    // Mesmo endereço em outra instância de String: o imóvel já está alugado.
+    LocacaoResidencial copia = new LocacaoResidencial(new String("Rua Alfredo Huch, 475"),
+        2, 1, 900.0, 100.0);
+    try {
+      imobiliaria.contratar(copia);
+      System.out.println(false);
+    } catch (LocacaoDeveSerRenovada e) {
+      System.out.println(true);
+    }
+    System.out.println(copia.getMeses() == 0); // 0, porque não foi contratado
+
     System.out.println("Processo da Imobiliária\n------------------------");
 
     System.out.println(Arrays.toString(imobiliaria.getLocacoesAtivas())); // 3 Locações
@@ -115,5 +131,69 @@ class App {
     System.out.println(loc1.getValorTotal() == 945.0); // 945.0
 
     System.out.println(imobiliaria);
+
+    System.out.println("Capacidade\n------------------------");
+
+    Imobiliaria cheia = new Imobiliaria("Cheia");
+    for (int i = 0; i < Imobiliaria.CAPACIDADE; i++) {
+      cheia.contratar(new LocacaoResidencial("Rua " + i, 1, 0, 500.0, 0.0));
+    }
+    LocacaoResidencial excedente = new LocacaoResidencial("Rua excedente", 1, 0, 500.0, 0.0);
+    try {
+      cheia.contratar(excedente);
+      System.out.println(false);
+    } catch (FullBagException e) {
+      System.out.println(true);
+    }
+    System.out.println(excedente.getMeses() == 0); // 0, a locação não foi alterada
+    System.out.println(cheia.getLocacoesAtivas().length == Imobiliaria.CAPACIDADE);
+
+    System.out.println("Bolsas primitivas\n------------------------");
+
+    IntBag inteiros = new IntBag(3);
+    inteiros.add(7);
+    inteiros.add(8);
+    inteiros.add(7);
+    System.out.println(inteiros.count() == 3); // 3
+    System.out.println(inteiros.has(8)); // true
+    try {
+      inteiros.add(9);
+      System.out.println(false);
+    } catch (FullBagException e) {
+      System.out.println(true); // cheia
+    }
+    inteiros.remove(7); // remove todas as ocorrências
+    System.out.println(inteiros.count() == 1 && !inteiros.has(7)); // 1
+    System.out.println(inteiros.get(0) == 8); // 8
+
+    LongBag longos = new LongBag(2);
+    longos.add(10000000000L);
+    longos.add(-1L);
+    System.out.println(longos.count() == 2); // 2
+    System.out.println(longos.has(10000000000L)); // true
+    try {
+      longos.add(0L);
+      System.out.println(false);
+    } catch (FullBagException e) {
+      System.out.println(true); // cheia
+    }
+    longos.remove(-1L);
+    System.out.println(longos.count() == 1 && !longos.has(-1L)); // 1
+    System.out.println(Arrays.equals(longos.toArray(), new long[] {10000000000L}));
+
+    DoubleBag reais = new DoubleBag(2);
+    reais.add(936.0);
+    reais.add(Double.NaN);
+    System.out.println(reais.count() == 2); // 2
+    System.out.println(reais.has(Double.NaN)); // true, como Double.equals
+    try {
+      reais.add(856.0);
+      System.out.println(false);
+    } catch (FullBagException e) {
+      System.out.println(true); // cheia
+    }
+    reais.remove(936.0);
+    System.out.println(reais.count() == 1 && !reais.has(936.0)); // 1
+    System.out.println(!reais.isEmpty());
   }
 }
@@ -0,0 +1,336 @@
+package distribuido;
+
+import exception.PedidoRecusado;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import model.imobiliaria.Locacao;
+import model.imobiliaria.Renovacao;
+import util.Bag;
+
+/**
+ * Coordenador do faturamento particionado. As locações são distribuídas por hash do
+ * endereço entre processos {@link Trabalhador} na mesma máquina: cada contratação e
+ * renovação é enviada apenas à partição do seu endereço, e cada cobrança é enviada a
+ * todas as partições em paralelo, somando os valores arrecadados.
+ * O coordenador não guarda locações, apenas encaminha os lotes que recebe, então
+ * nenhum processo mantém a carteira inteira em memória.
+ * Uma partição que falha, ou que não responde, tem o processo encerrado e é reiniciada
+ * a partir da sua imagem, e o pedido é repetido com espera crescente entre as tentativas;
+ * como o trabalhador não aplica duas vezes o mesmo pedido, a repetição é segura.
+ * O faturamento de uma carteira sintética está em simulacao.FaturamentoParticionado.
+ */
+public class Coordenador {
+
+  private static final int TENTATIVAS = 3;
+  private static final int TEMPO_LIMITE = 30000;
+  private static final long ESPERA = 200; // ms antes da primeira nova tentativa, e cresce
+
+  private final Path diretorio;
+  private final Process[] trabalhadores;
+  private final int[] portas;
+
+  /**
+   * Inicia um processo trabalhador por partição. Cada trabalhador carrega a imagem
+   * da sua partição no diretório informado ou, se ela não existir, começa vazio.
+   * @param particoes Quantidade de partições.
+   * @param diretorio Diretório onde as imagens das partições são gravadas.
+   * @throws IOException Caso um trabalhador não inicie.
+   * @throws IllegalArgumentException Caso não haja ao menos uma partição.
+   */
+  public Coordenador(int particoes, Path diretorio) throws IOException {
+    if (particoes <= 0) {
+      throw new IllegalArgumentException("São necessários trabalhadores: " + particoes);
+    }
+    this.diretorio = diretorio;
+    this.trabalhadores = new Process[particoes];
+    this.portas = new int[particoes];
+    try {
+      for (int i = 0; i < particoes; i++) {
+        trabalhadores[i] = this.criarTrabalhador(i);
+      }
+      for (int i = 0; i < particoes; i++) {
+        this.aguardarPorta(i);
+      }
+    } catch (IOException | RuntimeException e) {
+      for (Process trabalhador : trabalhadores) {
+        if (trabalhador != null) {
+          destruir(trabalhador);
+        }
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Escolhe a partição de uma locação pelo hash do endereço.
+   * @param locacao   A locação.
+   * @param particoes Quantidade de partições.
+   * @return O índice da partição.
+   */
+  public static int particao(Locacao locacao, int particoes) {
+    return Math.floorMod(locacao.getEndereco().hashCode(), particoes);
+  }
+
+  private Path imagem(int particao) {
+    return diretorio.resolve("particao-" + particao + ".img");
+  }
+
+  private Process criarTrabalhador(int particao) throws IOException {
+    String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+        Trabalhador.class.getName(), this.imagem(particao).toString(), "Partição " + particao)
+        .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+  }
+
+  private void aguardarPorta(int particao) throws IOException {
+    BufferedReader saida = new BufferedReader(new InputStreamReader(
+        trabalhadores[particao].getInputStream(), StandardCharsets.UTF_8));
+    String linha = saida.readLine();
+    if (linha == null || !linha.startsWith("PORTA ")) {
+      throw new IOException("Trabalhador " + particao + " não iniciou: " + linha);
+    }
+    portas[particao] = Integer.parseInt(linha.substring("PORTA ".length()));
+  }
+
+  // Encerra o processo atual, mesmo que ainda esteja vivo, e inicia outro a partir da imagem.
+  private void reiniciarTrabalhador(int particao) throws IOException {
+    destruir(trabalhadores[particao]);
+    trabalhadores[particao] = this.criarTrabalhador(particao);
+    try {
+      this.aguardarPorta(particao);
+    } catch (IOException e) {
+      destruir(trabalhadores[particao]);
+      throw e;
+    }
+  }
+
+  // destroyForcibly não aguarda o fim do processo; waitFor garante que ele terminou.
+  private static void destruir(Process processo) {
+    try {
+      processo.destroyForcibly().waitFor();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private String enviar(int particao, String pedido) throws IOException {
+    try (Socket conexao = new Socket(InetAddress.getLoopbackAddress(), portas[particao])) {
+      conexao.setSoTimeout(TEMPO_LIMITE);
+      PrintWriter saida = new PrintWriter(conexao.getOutputStream(), true,
+          StandardCharsets.UTF_8);
+      BufferedReader entrada = new BufferedReader(
+          new InputStreamReader(conexao.getInputStream(), StandardCharsets.UTF_8));
+      saida.println(pedido);
+      String resposta = entrada.readLine();
+      if (resposta != null && resposta.startsWith("RECUSADO")) {
+        throw new PedidoRecusado(particao, resposta.substring("RECUSADO".length()));
+      }
+      if (resposta == null || !resposta.startsWith("OK ")) {
+        throw new IOException("Partição " + particao + " respondeu: " + resposta);
+      }
+      return resposta.substring("OK ".length());
+    }
+  }
+
+  /**
+   * Contrata um lote de locações, cada uma na partição do seu endereço.
+   * As partições recebem suas partes do lote em paralelo.
+   * @param locacoes Bolsa de {@link Locacao} ainda não contratadas.
+   * @return Quantidade de locações contratadas; as já contratadas não são contadas.
+   * @throws IOException     Caso uma partição continue falhando após as tentativas.
+   * @throws PedidoRecusado  Caso uma partição recuse alguma locação, como quando está cheia;
+   *                         as demais locações do lote continuam contratadas.
+   */
+  public int contratar(Bag locacoes) throws IOException {
+    StringBuilder[] linhas = new StringBuilder[trabalhadores.length];
+    int[] quantidades = new int[trabalhadores.length];
+    for (Object o : locacoes.toArray()) {
+      Locacao locacao = (Locacao) o;
+      int p = particao(locacao, trabalhadores.length);
+      linhas[p] = acrescentar(linhas[p], Protocolo.contratacao(locacao));
+      quantidades[p]++;
+    }
+    return somar(this.espalhar(pedidos("CONTRATAR", linhas, quantidades)));
+  }
+
+  /**
+   * Renova um lote de contratos, cada um na partição do endereço do seu imóvel.
+   * @param renovacoes Bolsa de {@link Renovacao} com os novos termos de cada imóvel.
+   * @return Quantidade de contratos renovados; os já renovados não são contados.
+   * @throws IOException     Caso uma partição continue falhando após as tentativas.
+   * @throws PedidoRecusado  Caso uma partição recuse alguma renovação, como a de um imóvel
+   *                         não contratado; as demais renovações do lote são mantidas.
+   */
+  public int renovar(Bag renovacoes) throws IOException {
+    StringBuilder[] linhas = new StringBuilder[trabalhadores.length];
+    int[] quantidades = new int[trabalhadores.length];
+    for (Object o : renovacoes.toArray()) {
+      Renovacao renovacao = (Renovacao) o;
+      int p = particao(renovacao.getLocacao(), trabalhadores.length);
+      linhas[p] = acrescentar(linhas[p], Protocolo.renovacao(renovacao));
+      quantidades[p]++;
+    }
+    return somar(this.espalhar(pedidos("RENOVAR", linhas, quantidades)));
+  }
+
+  private static StringBuilder acrescentar(StringBuilder linhas, String linha) {
+    if (linhas == null) {
+      return new StringBuilder(linha);
+    }
+    return linhas.append('\n').append(linha);
+  }
+
+  // Monta o pedido de cada partição; as que não recebem linhas ficam sem pedido.
+  private static String[] pedidos(String comando, StringBuilder[] linhas, int[] quantidades) {
+    String[] pedidos = new String[linhas.length];
+    for (int p = 0; p < linhas.length; p++) {
+      if (linhas[p] != null) {
+        pedidos[p] = comando + " " + quantidades[p] + "\n" + linhas[p];
+      }
+    }
+    return pedidos;
+  }
+
+  private static int somar(String[] respostas) {
+    int total = 0;
+    for (String resposta : respostas) {
+      total += resposta == null ? 0 : Integer.parseInt(resposta);
+    }
+    return total;
+  }
+
+  /**
+   * Gera e paga a cobrança de um período em todas as partições.
+   * @param ano    Ano da cobrança.
+   * @param mes    Mês da cobrança.
+   * @param atraso Dias de atraso do pagamento, ou 0 para pagamento em dia.
+   * @return Soma dos valores arrecadados pelas partições.
+   * @throws IOException Caso uma partição continue falhando após as tentativas.
+   */
+  public double novaCobranca(int ano, int mes, int atraso) throws IOException {
+    String[] pedidos = new String[trabalhadores.length];
+    for (int i = 0; i < pedidos.length; i++) {
+      pedidos[i] = "COBRAR " + ano + " " + mes + " " + atraso;
+    }
+    String[] respostas = this.espalhar(pedidos);
+    double total = 0.0;
+    for (String resposta : respostas) {
+      total += Double.parseDouble(resposta);
+    }
+    return total;
+  }
+
+  /**
+   * Envia a cada partição o seu pedido, todas em paralelo, e repete os que falharam.
+   * Um pedido recusado não é repetido: a recusa é lançada depois que todas as partições
+   * responderam, para que nenhuma fique sem o seu pedido.
+   * @param pedidos O pedido de cada partição, ou null para as que não recebem pedido.
+   * @return A resposta de cada partição, ou null para as que não receberam pedido.
+   * @throws IOException Caso uma partição continue falhando após as tentativas.
+   */
+  private String[] espalhar(String[] pedidos) throws IOException {
+    String[] respostas = new String[trabalhadores.length];
+    IOException[] falhas = new IOException[trabalhadores.length];
+    PedidoRecusado[] recusas = new PedidoRecusado[trabalhadores.length];
+    Thread[] envios = new Thread[trabalhadores.length];
+    for (int i = 0; i < envios.length; i++) {
+      if (pedidos[i] == null) {
+        continue;
+      }
+      int particao = i;
+      envios[i] = new Thread(() -> {
+        try {
+          respostas[particao] = this.enviar(particao, pedidos[particao]);
+        } catch (PedidoRecusado e) {
+          recusas[particao] = e;
+        } catch (IOException | RuntimeException e) {
+          falhas[particao] = e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+      });
+      envios[i].start();
+    }
+    for (Thread envio : envios) {
+      if (envio == null) {
+        continue;
+      }
+      try {
+        envio.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Pedido interrompido", e);
+      }
+    }
+    for (int i = 0; i < respostas.length; i++) {
+      if (falhas[i] != null) {
+        try {
+          respostas[i] = this.repetir(i, pedidos[i], falhas[i]);
+        } catch (PedidoRecusado e) {
+          recusas[i] = e;
+        }
+      }
+    }
+    for (PedidoRecusado recusa : recusas) {
+      if (recusa != null) {
+        throw recusa;
+      }
+    }
+    return respostas;
+  }
+
+  private String repetir(int particao, String pedido, IOException falha) throws IOException {
+    for (int tentativa = 1; tentativa <= TENTATIVAS; tentativa++) {
+      System.err.println("Partição " + particao + " falhou (" + falha.getMessage()
+          + "), tentativa " + tentativa);
+      try {
+        Thread.sleep(ESPERA * tentativa);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Pedido interrompido", e);
+      }
+      try {
+        this.reiniciarTrabalhador(particao);
+        return this.enviar(particao, pedido);
+      } catch (PedidoRecusado e) {
+        throw e;
+      } catch (IOException | RuntimeException e) {
+        falha = e instanceof IOException ? (IOException) e : new IOException(e);
+      }
+    }
+    throw falha;
+  }
+
+  /**
+   * Interrompe um trabalhador, simulando a queda de uma partição.
+   * @param particao O índice da partição.
+   */
+  public void interromper(int particao) {
+    trabalhadores[particao].destroyForcibly();
+  }
+
+  /**
+   * Encerra todos os trabalhadores e aguarda o fim dos processos.
+   */
+  public void encerrar() {
+    for (int i = 0; i < trabalhadores.length; i++) {
+      try {
+        this.enviar(i, "ENCERRAR");
+        if (trabalhadores[i].waitFor(TEMPO_LIMITE, TimeUnit.MILLISECONDS)) {
+          continue;
+        }
+      } catch (IOException e) {
+        // o trabalhador não respondeu e é encerrado à força
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      destruir(trabalhadores[i]);
+    }
+  }
+
+}
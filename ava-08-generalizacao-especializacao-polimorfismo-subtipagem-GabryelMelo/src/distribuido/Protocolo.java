@@ -0,0 +1,90 @@
+package distribuido;
+
+import exception.ImovelInvalido;
+import model.imobiliaria.Imobiliaria;
+import model.imobiliaria.Locacao;
+import model.imobiliaria.LocacaoApartamento;
+import model.imobiliaria.LocacaoComercial;
+import model.imobiliaria.LocacaoResidencial;
+import model.imobiliaria.Renovacao;
+
+/**
+ * Linhas dos pedidos de contratação e renovação trocados entre o coordenador e os
+ * trabalhadores. O endereço é o último campo e vai até o fim da linha, podendo ter
+ * espaços; os valores usam a representação decimal exata de double.
+ */
+final class Protocolo {
+
+  private Protocolo() {
+  }
+
+  /**
+   * Escreve a linha de contratação de uma locação.
+   * @param locacao A locação a ser contratada.
+   * @return Linha com tipo, quartos, garagem, valor, extra e endereço.
+   * @throws IllegalArgumentException Caso o endereço tenha uma quebra de linha.
+   */
+  static String contratacao(Locacao locacao) {
+    // 'R'esidencial, 'A'partamento ou 'C'omercial
+    return locacao.getTipo().charAt(0) + " " + locacao.getQuartos() + " "
+        + locacao.getGaragem() + " " + locacao.getValor() + " " + locacao.getExtra() + " "
+        + endereco(locacao);
+  }
+
+  /**
+   * Lê uma locação, ainda não contratada, de uma linha de contratação.
+   * @param linha Linha escrita por {@link #contratacao(Locacao)}.
+   * @return A locação descrita na linha.
+   * @throws ImovelInvalido Caso o tipo do imóvel seja diferente de: 'A', 'C' ou 'R'.
+   */
+  static Locacao lerContratacao(String linha) {
+    String[] campos = linha.split(" ", 6);
+    int quartos = Integer.parseInt(campos[1]);
+    int garagem = Integer.parseInt(campos[2]);
+    double valor = Double.parseDouble(campos[3]);
+    double extra = Double.parseDouble(campos[4]);
+    switch (campos[0]) {
+      case "R":
+        return new LocacaoResidencial(campos[5], quartos, garagem, valor, extra);
+      case "A":
+        return new LocacaoApartamento(campos[5], quartos, garagem, valor, extra);
+      case "C":
+        return new LocacaoComercial(campos[5], quartos, garagem, valor, extra);
+      default:
+        throw new ImovelInvalido();
+    }
+  }
+
+  /**
+   * Escreve a linha de renovação de um contrato.
+   * @param renovacao Os novos termos do contrato.
+   * @return Linha com prazo, reajuste, extra e endereço.
+   * @throws IllegalArgumentException Caso o endereço tenha uma quebra de linha.
+   */
+  static String renovacao(Renovacao renovacao) {
+    return renovacao.getPrazo() + " " + renovacao.getReajuste() + " " + renovacao.getExtra()
+        + " " + endereco(renovacao.getLocacao());
+  }
+
+  /**
+   * Lê os termos de uma renovação. A locação é a contratada no endereço da linha,
+   * ou null se não houver, o que a imobiliária rejeita na validação.
+   * @param linha       Linha escrita por {@link #renovacao(Renovacao)}.
+   * @param imobiliaria Imobiliária da partição, onde a locação é procurada.
+   * @return Os termos da renovação.
+   */
+  static Renovacao lerRenovacao(String linha, Imobiliaria imobiliaria) {
+    String[] campos = linha.split(" ", 4);
+    return new Renovacao(imobiliaria.getLocacao(campos[3]), Double.parseDouble(campos[1]),
+        Double.parseDouble(campos[2]), Integer.parseInt(campos[0]));
+  }
+
+  private static String endereco(Locacao locacao) {
+    String endereco = locacao.getEndereco();
+    if (endereco.indexOf('\n') >= 0 || endereco.indexOf('\r') >= 0) {
+      throw new IllegalArgumentException("Endereço com quebra de linha: " + endereco);
+    }
+    return endereco;
+  }
+
+}
@@ -0,0 +1,219 @@
+package distribuido;
+
+import inicializacao.ImagemImobiliaria;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import model.imobiliaria.Cobranca;
+import model.imobiliaria.Imobiliaria;
+import model.imobiliaria.Locacao;
+import model.imobiliaria.LocacaoComercial;
+import model.imobiliaria.Renovacao;
+import util.Bag;
+
+/**
+ * Processo trabalhador do faturamento particionado. Carrega a imagem de uma partição,
+ * atende pedidos do coordenador pela interface de loopback e grava a imagem após cada
+ * contratação, renovação e cobrança, antes de responder, para que possa ser reiniciado
+ * sem perder o que já confirmou.
+ *
+ * <p>Protocolo, um pedido por conexão:
+ * <pre>
+ * CONTRATAR n            -&gt;  OK contratadas  ou  RECUSADO motivos
+ * tipo quartos garagem valor extra endereco   (n linhas)
+ * RENOVAR n              -&gt;  OK renovadas  ou  RECUSADO motivos
+ * prazo reajuste extra endereco               (n linhas)
+ * COBRAR ano mes atraso  -&gt;  OK valorArrecadado
+ * ENCERRAR               -&gt;  OK 0
+ * </pre>
+ * Todo pedido pode ser repetido com segurança. Uma locação já contratada não é contratada
+ * de novo; um contrato já renovado no prazo pedido, e ainda sem pagamentos, não é
+ * renovado de novo; e uma cobrança já realizada não é paga de novo, o pedido repetido
+ * recebe o mesmo valor. As linhas recusadas, como as de uma partição cheia, não impedem
+ * as demais e são informadas pelo número da linha.
+ */
+public final class Trabalhador {
+
+  private static final int TEMPO_LIMITE = 30000;
+
+  private final Imobiliaria imobiliaria;
+  private final Path imagem;
+
+  private Trabalhador(Imobiliaria imobiliaria, Path imagem) {
+    this.imobiliaria = imobiliaria;
+    this.imagem = imagem;
+  }
+
+  /**
+   * Atende um pedido do coordenador.
+   * @param pedido  Primeira linha do pedido.
+   * @param entrada Conexão de onde são lidas as linhas seguintes do pedido.
+   * @return Linha da resposta.
+   * @throws IOException Caso o pedido esteja incompleto ou a imagem não possa ser gravada.
+   */
+  String atender(String pedido, BufferedReader entrada) throws IOException {
+    String[] partes = pedido.trim().split(" ");
+    if (partes[0].equals("ENCERRAR")) {
+      return "OK 0";
+    }
+    if (partes[0].equals("CONTRATAR") && partes.length == 2) {
+      return this.contratar(lerLinhas(entrada, Integer.parseInt(partes[1])));
+    }
+    if (partes[0].equals("RENOVAR") && partes.length == 2) {
+      return this.renovar(lerLinhas(entrada, Integer.parseInt(partes[1])));
+    }
+    if (!partes[0].equals("COBRAR") || partes.length != 4) {
+      return "ERRO pedido inválido: " + pedido;
+    }
+    int ano = Integer.parseInt(partes[1]);
+    int mes = Integer.parseInt(partes[2]);
+    int atraso = Integer.parseInt(partes[3]);
+    Cobranca cobranca = imobiliaria.getCobranca(ano, mes);
+    if (cobranca == null) {
+      cobranca = imobiliaria.novaCobranca(ano, mes);
+      if (atraso > 0) {
+        cobranca.pagar(atraso);
+      } else {
+        cobranca.pagar();
+      }
+      ImagemImobiliaria.salvar(imobiliaria, imagem);
+    }
+    return "OK " + cobranca.getValorArrecadado();
+  }
+
+  private static String[] lerLinhas(BufferedReader entrada, int quantidade)
+      throws IOException {
+    String[] linhas = new String[quantidade];
+    for (int i = 0; i < quantidade; i++) {
+      linhas[i] = entrada.readLine();
+      if (linhas[i] == null) {
+        throw new IOException("Pedido incompleto: " + i + " de " + quantidade + " linhas");
+      }
+    }
+    return linhas;
+  }
+
+  private String contratar(String[] linhas) throws IOException {
+    int contratadas = 0;
+    String recusas = "";
+    for (int i = 0; i < linhas.length; i++) {
+      try {
+        Locacao locacao = Protocolo.lerContratacao(linhas[i]);
+        if (imobiliaria.validarContratacao(locacao) != null) {
+          continue; // já contratada, por um pedido anterior ou por este mesmo repetido
+        }
+        if (locacao instanceof LocacaoComercial) {
+          imobiliaria.contratar((LocacaoComercial) locacao);
+        } else {
+          imobiliaria.contratar(locacao);
+        }
+        contratadas++;
+      } catch (RuntimeException e) {
+        recusas += " linha " + i + ": " + e.getMessage() + ";";
+      }
+    }
+    if (contratadas > 0) {
+      ImagemImobiliaria.salvar(imobiliaria, imagem);
+    }
+    return recusas.isEmpty() ? "OK " + contratadas : "RECUSADO" + recusas;
+  }
+
+  private String renovar(String[] linhas) throws IOException {
+    Renovacao[] renovacoes = new Renovacao[linhas.length];
+    Bag lote = new Bag(Math.max(1, linhas.length));
+    String recusas = "";
+    for (int i = 0; i < linhas.length; i++) {
+      try {
+        renovacoes[i] = Protocolo.lerRenovacao(linhas[i], imobiliaria);
+      } catch (RuntimeException e) {
+        recusas += " linha " + i + ": " + e.getMessage() + ";";
+        continue;
+      }
+      Locacao locacao = renovacoes[i].getLocacao();
+      if (locacao != null && locacao.getMeses() == locacao.getPrazo()
+          && locacao.getPrazo() == renovacoes[i].getPrazo()) {
+        renovacoes[i] = null; // já renovada por este mesmo pedido, repetido
+        continue;
+      }
+      lote.add(renovacoes[i]);
+    }
+    int renovadas = imobiliaria.renovar(lote);
+    for (int i = 0; i < renovacoes.length; i++) {
+      if (renovacoes[i] != null && !renovacoes[i].isRenovada()) {
+        recusas += " linha " + i + ": " + renovacoes[i].getErro().getMessage() + ";";
+      }
+    }
+    if (renovadas > 0) {
+      ImagemImobiliaria.salvar(imobiliaria, imagem);
+    }
+    return recusas.isEmpty() ? "OK " + renovadas : "RECUSADO" + recusas;
+  }
+
+  private void executar(ServerSocket servidor) throws IOException {
+    while (true) {
+      try (Socket conexao = servidor.accept()) {
+        conexao.setSoTimeout(TEMPO_LIMITE);
+        BufferedReader entrada = new BufferedReader(
+            new InputStreamReader(conexao.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter saida = new PrintWriter(conexao.getOutputStream(), true,
+            StandardCharsets.UTF_8);
+        String pedido = entrada.readLine();
+        if (pedido == null) {
+          continue;
+        }
+        String resposta;
+        try {
+          resposta = this.atender(pedido, entrada);
+        } catch (IOException | RuntimeException e) {
+          resposta = "ERRO " + e.getMessage();
+        }
+        saida.println(resposta);
+        if (pedido.startsWith("ENCERRAR")) {
+          return;
+        }
+      } catch (IOException e) {
+        // Uma conexão com falha não derruba o trabalhador: o coordenador repete o pedido.
+        System.err.println("Conexão com falha: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Ponto de entrada do trabalhador. Carrega a imagem da partição ou, se ela ainda
+   * não existir, começa com uma imobiliária vazia e grava a imagem dela; as locações
+   * chegam depois pelos pedidos de contratação.
+   * Escuta em uma porta livre de loopback e informa a porta na primeira linha
+   * da saída padrão.
+   * @param args Caminho da imagem e nome da imobiliária da partição.
+   * @throws IOException Caso a imagem não possa ser lida ou gravada,
+   *                     ou a porta não possa ser aberta.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Uso: java distribuido.Trabalhador <imagem> <nome>");
+      System.exit(1);
+    }
+    Path imagem = Path.of(args[0]);
+    Imobiliaria imobiliaria;
+    if (Files.exists(imagem)) {
+      imobiliaria = ImagemImobiliaria.carregar(imagem);
+    } else {
+      imobiliaria = new Imobiliaria(args[1]);
+      ImagemImobiliaria.salvar(imobiliaria, imagem);
+    }
+    Trabalhador trabalhador = new Trabalhador(imobiliaria, imagem);
+    try (ServerSocket servidor = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+      System.out.println("PORTA " + servidor.getLocalPort());
+      System.out.flush();
+      trabalhador.executar(servidor);
+    }
+  }
+
+}
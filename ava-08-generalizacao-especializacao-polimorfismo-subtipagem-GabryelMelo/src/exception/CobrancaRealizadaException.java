@@ -3,7 +3,7 @@ package exception;
 public class CobrancaRealizadaException extends RuntimeException {
 
   public CobrancaRealizadaException() {
-    super("Cobrança já realizada.");
+    super("Cobrança já realizada.", null, false, false);
   }
 
 }
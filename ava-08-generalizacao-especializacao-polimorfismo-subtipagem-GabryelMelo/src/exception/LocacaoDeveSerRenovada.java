@@ -3,7 +3,7 @@ package exception;
 public class LocacaoDeveSerRenovada extends RuntimeException {
 
   public LocacaoDeveSerRenovada() {
-    super("Locacao deve ser renovada.");
+    super("Locacao deve ser renovada.", null, false, false);
   }
 
 }
@@ -3,7 +3,7 @@ package exception;
 public class LocacaoEmAndamento extends RuntimeException {
 
   public LocacaoEmAndamento() {
-    super("Locacao deve ser renovada.");
+    super("Locacao deve ser renovada.", null, false, false);
   }
 
 }
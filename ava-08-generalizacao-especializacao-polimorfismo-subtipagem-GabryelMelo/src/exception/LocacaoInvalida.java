@@ -0,0 +1,9 @@
+package exception;
+
+public class LocacaoInvalida extends RuntimeException {
+
+  public LocacaoInvalida() {
+    super("A locação não foi informada.", null, false, false);
+  }
+
+}
@@ -0,0 +1,9 @@
+package exception;
+
+public class LocacaoNaoContratada extends RuntimeException {
+
+  public LocacaoNaoContratada() {
+    super("Locação não foi contratada nesta imobiliária.", null, false, false);
+  }
+
+}
@@ -0,0 +1,9 @@
+package exception;
+
+public class PedidoRecusado extends RuntimeException {
+
+  public PedidoRecusado(int particao, String motivos) {
+    super("A partição " + particao + " recusou o pedido:" + motivos, null, false, false);
+  }
+
+}
@@ -3,7 +3,7 @@ package exception;
 public class PrazoMinimoComercial extends RuntimeException {
 
   public PrazoMinimoComercial() {
-    super("Prazo minimo de 6 meses para comercial.");
+    super("Prazo minimo de 6 meses para comercial.", null, false, false);
   }
 
 }
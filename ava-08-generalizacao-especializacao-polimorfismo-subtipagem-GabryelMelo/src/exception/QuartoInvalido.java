@@ -3,7 +3,7 @@ package exception;
 public class QuartoInvalido extends RuntimeException {
 
   public QuartoInvalido() {
-    super("O número de quartos não pode ser menor que 0.");
+    super("O número de quartos não pode ser menor que 0.", null, false, false);
   }
 
 }
@@ -3,7 +3,7 @@ package exception;
 public class ValorInvalido extends RuntimeException {
 
   public ValorInvalido() {
-    super("O valor não pode ser negativo.");
+    super("O valor não pode ser negativo.", null, false, false);
   }
 
 }
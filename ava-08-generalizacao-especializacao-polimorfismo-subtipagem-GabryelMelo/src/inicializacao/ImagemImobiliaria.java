@@ -0,0 +1,60 @@
+package inicializacao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import model.imobiliaria.Imobiliaria;
+
+/**
+ * Imagem binária pré-computada de uma imobiliária, com locações, cobranças,
+ * históricos e indicadores prontos para uso, sem reconstruí-los a partir dos registros.
+ */
+public final class ImagemImobiliaria {
+
+  // Apenas as classes do modelo podem ser desserializadas a partir de uma imagem.
+  private static final ObjectInputFilter FILTRO = ObjectInputFilter.Config.createFilter(
+      "model.imobiliaria.*;util.*;java.lang.*;!*");
+
+  private ImagemImobiliaria() {
+  }
+
+  /**
+   * Grava a imagem de uma imobiliária. A imagem é escrita em um arquivo temporário
+   * e só então substitui a anterior, que nunca fica parcialmente gravada.
+   * @param imobiliaria A imobiliária a ser gravada.
+   * @param arquivo     Caminho do arquivo de imagem.
+   * @throws IOException Caso o arquivo não possa ser gravado.
+   */
+  public static void salvar(Imobiliaria imobiliaria, Path arquivo) throws IOException {
+    Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+    try (ObjectOutputStream saida = new ObjectOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(temporario), 1 << 16))) {
+      saida.writeObject(imobiliaria);
+    }
+    Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Carrega a imagem de uma imobiliária.
+   * @param arquivo Caminho do arquivo de imagem.
+   * @return A imobiliária pronta para cobrança.
+   * @throws IOException Caso o arquivo não possa ser lido ou não contenha uma imobiliária.
+   */
+  public static Imobiliaria carregar(Path arquivo) throws IOException {
+    try (ObjectInputStream entrada = new ObjectInputStream(
+        new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16))) {
+      entrada.setObjectInputFilter(FILTRO);
+      return (Imobiliaria) entrada.readObject();
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new IOException("Imagem de imobiliária inválida: " + arquivo, e);
+    }
+  }
+
+}
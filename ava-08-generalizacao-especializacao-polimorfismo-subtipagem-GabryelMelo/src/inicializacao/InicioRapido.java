@@ -0,0 +1,84 @@
+package inicializacao;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Random;
+import model.imobiliaria.Cobranca;
+import model.imobiliaria.Imobiliaria;
+import simulacao.GeradorCarga;
+
+/**
+ * Inicialização rápida de um nó de cobrança e medição do tempo até o primeiro pagamento.
+ *
+ * <p>Gerar a imagem pré-computada da imobiliária:
+ * <pre>java -cp out inicializacao.InicioRapido gerar carteira.img [locacoes]</pre>
+ *
+ * <p>Gerar o arquivo AppCDS com as classes carregadas até a primeira cobrança:
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=imobiliaria.jsa -cp out \
+ *     inicializacao.InicioRapido medir carteira.img
+ * </pre>
+ *
+ * <p>Iniciar com o arquivo AppCDS e a imagem, medindo o tempo até o primeiro Cobranca.pagar:
+ * <pre>
+ * java -XX:SharedArchiveFile=imobiliaria.jsa -cp out \
+ *     inicializacao.InicioRapido medir carteira.img
+ * </pre>
+ */
+public final class InicioRapido {
+
+  private InicioRapido() {
+  }
+
+  /**
+   * Gera uma imobiliária sintética com locações já contratadas.
+   * @param quantidade Quantidade de locações, até a capacidade da imobiliária.
+   * @param semente    Semente do gerador pseudoaleatório.
+   * @return A imobiliária gerada.
+   */
+  static Imobiliaria gerar(int quantidade, long semente) {
+    Random random = new Random(semente);
+    Imobiliaria imobiliaria = new Imobiliaria("Carteira");
+    for (int i = 0; i < quantidade; i++) {
+      GeradorCarga.contratar(imobiliaria, GeradorCarga.gerarLocacao(random, "Rua " + i));
+    }
+    return imobiliaria;
+  }
+
+  /**
+   * Ponto de entrada da inicialização rápida.
+   * @param args "gerar &lt;imagem&gt; [locacoes]" ou "medir &lt;imagem&gt;".
+   * @throws IOException Caso a imagem não possa ser gravada ou lida.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Uso: java inicializacao.InicioRapido gerar <imagem> [locacoes]");
+      System.err.println("     java inicializacao.InicioRapido medir <imagem>");
+      System.exit(1);
+    }
+    Path arquivo = Path.of(args[1]);
+    if (args[0].equals("gerar")) {
+      int quantidade = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+      ImagemImobiliaria.salvar(gerar(quantidade, 42L), arquivo);
+      System.out.println("Imagem gravada em " + arquivo);
+      return;
+    }
+    long inicioJvm = ManagementFactory.getRuntimeMXBean().getStartTime();
+    long inicioMain = System.currentTimeMillis();
+    long antes = System.nanoTime();
+    Imobiliaria imobiliaria = ImagemImobiliaria.carregar(arquivo);
+    long carregada = System.nanoTime();
+    Cobranca cobranca = imobiliaria.novaCobranca(2020, 1);
+    cobranca.pagar();
+    long paga = System.nanoTime();
+    System.out.printf("Início da JVM até main:      %6d ms%n", inicioMain - inicioJvm);
+    System.out.printf("Carregar imagem:             %6.1f ms%n", (carregada - antes) / 1e6);
+    System.out.printf("Primeira Cobranca.pagar:     %6.1f ms (%d locações, %.2f)%n",
+        (paga - carregada) / 1e6, imobiliaria.getLocacoesAtivas().length,
+        cobranca.getValorArrecadado());
+    System.out.printf("Início da JVM até pagamento: %6d ms%n",
+        System.currentTimeMillis() - inicioJvm);
+  }
+
+}
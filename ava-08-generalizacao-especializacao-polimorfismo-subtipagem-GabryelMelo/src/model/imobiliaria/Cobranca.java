@@ -1,13 +1,23 @@
 package model.imobiliaria;
 
 import exception.CobrancaRealizadaException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import monitoramento.EventoCobranca;
+import monitoramento.Gravacao;
 
-public class Cobranca {
+public class Cobranca implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   private final Imobiliaria imobiliaria;
   private final int ano;
   private final int mes;
   private double valorArrecadado = 0.0;
+  private double valorMultas = 0.0;
+  // Medição de desempenho desta execução, que não faz parte da imagem da imobiliária.
+  private transient EtapasCobranca etapas = new EtapasCobranca();
 
   /**
    * Construtor da classe Cobrança.
@@ -37,32 +47,122 @@ public class Cobranca {
 
   /**
    * Método que paga uma cobrança.
+   * Cobranças da mesma imobiliária são pagas uma de cada vez.
    * @throws CobrancaRealizadaException Lança a exceção caso o valor arrecadado,
    *                                    seja maior que 0 (a cobrança já foi paga).
    */
 
   public void pagar() {
-    if (valorArrecadado > 0) {
-      throw new CobrancaRealizadaException();
-    }
-    for (Object o: imobiliaria.getLocacoesAtivas()) {
-      Locacao locacao = (Locacao) o;
-      valorArrecadado += locacao.pagar();
+    synchronized (imobiliaria) {
+      if (valorArrecadado > 0) {
+        throw new CobrancaRealizadaException();
+      }
+      this.processar(0, false);
     }
   }
 
   /**
    * Método que paga uma cobrança com atraso.
+   * Cobranças da mesma imobiliária são pagas uma de cada vez.
    * @param atraso Recebe como parâmetro o valor do atraso.
    */
 
   public void pagar(int atraso) {
-    if (valorArrecadado > 0) {
+    synchronized (imobiliaria) {
+      if (valorArrecadado > 0) {
+        return;
+      }
+      this.processar(atraso, true);
+    }
+  }
+
+  /**
+   * Processa o pagamento das locações ativas em etapas, cada uma sobre todo o lote:
+   * seleciona as locações, calcula os valores devidos, aplica os pagamentos,
+   * registra históricos e indicadores e agrega o total arrecadado.
+   * Roda sob o bloqueio da imobiliária, do mesmo modo que contratações e renovações,
+   * para que duas cobranças não selecionem e paguem a mesma última parcela.
+   * @param atraso    Dias de atraso do pagamento.
+   * @param comAtraso Se o pagamento deve ser feito com multa por atraso.
+   */
+
+  private void processar(int atraso, boolean comAtraso) {
+    EventoCobranca evento = null;
+    if (Gravacao.ativa()) {
+      evento = new EventoCobranca();
+      evento.begin();
+    }
+    long inicio = System.nanoTime();
+    Object[] ativas = imobiliaria.getLocacoesAtivas();
+    inicio = this.concluirEtapa(EtapasCobranca.SELECIONAR, inicio);
+
+    double[] valoresBase = new double[ativas.length];
+    // Multas fixa, por dia de atraso e de condomínio, calculadas antes do pagamento
+    // porque a taxa comercial sai do valor total após a primeira parcela.
+    double[] multas = new double[comAtraso ? ativas.length * 3 : 0];
+    for (int i = 0; i < ativas.length; i++) {
+      Locacao locacao = (Locacao) ativas[i];
+      valoresBase[i] = locacao.getValorTotal();
+      if (comAtraso) {
+        multas[i * 3] = locacao.getMultaFixa();
+        multas[i * 3 + 1] = locacao.getMultaAtraso(atraso);
+        multas[i * 3 + 2] = locacao.getMultaCondominio();
+      }
+    }
+    inicio = this.concluirEtapa(EtapasCobranca.CALCULAR, inicio);
+
+    double[] valoresPagos = new double[ativas.length];
+    for (int i = 0; i < ativas.length; i++) {
+      Locacao locacao = (Locacao) ativas[i];
+      valoresPagos[i] = comAtraso ? locacao.pagar(atraso) : locacao.pagar();
+    }
+    inicio = this.concluirEtapa(EtapasCobranca.APLICAR, inicio);
+
+    for (int i = 0; i < ativas.length; i++) {
+      HistoricoPagamentos historico = ((Locacao) ativas[i]).getHistorico();
+      if (comAtraso) {
+        historico.registrar(ano, mes, atraso, valoresPagos[i],
+            multas[i * 3], multas[i * 3 + 1], multas[i * 3 + 2]);
+      } else {
+        historico.registrar(ano, mes, atraso, valoresPagos[i], 0.0, 0.0, 0.0);
+      }
+    }
+    imobiliaria.registrarPagamentos(ativas, valoresBase, valoresPagos);
+    inicio = this.concluirEtapa(EtapasCobranca.REGISTRAR, inicio);
+
+    for (int i = 0; i < ativas.length; i++) {
+      valorArrecadado += valoresPagos[i];
+      valorMultas += valoresPagos[i] - valoresBase[i];
+    }
+    this.concluirEtapa(EtapasCobranca.AGREGAR, inicio);
+    etapas.contar(ativas.length);
+    this.registrarEvento(evento, ativas.length, atraso);
+  }
+
+  private long concluirEtapa(int etapa, long inicio) {
+    long fim = System.nanoTime();
+    etapas.registrar(etapa, fim - inicio);
+    return fim;
+  }
+
+  /**
+   * Registra no JFR o evento de pagamento, caso esteja habilitado.
+   * @param evento   O evento iniciado antes do pagamento, ou null se o JFR não estiver ativo.
+   * @param cobradas Quantidade de locações cobradas.
+   * @param atraso   Dias de atraso do pagamento.
+   */
+
+  private void registrarEvento(EventoCobranca evento, int cobradas, int atraso) {
+    if (evento == null) {
       return;
     }
-    for (Object o: imobiliaria.getLocacoesAtivas()) {
-      Locacao locacao = (Locacao) o;
-      valorArrecadado += locacao.pagar(atraso);
+    evento.end();
+    if (evento.shouldCommit()) {
+      evento.periodo = this.getPeriodo();
+      evento.locacoesCobradas = cobradas;
+      evento.valorArrecadado = this.valorArrecadado;
+      evento.atraso = atraso;
+      evento.commit();
     }
   }
 
@@ -70,19 +170,32 @@ public class Cobranca {
     return valorArrecadado;
   }
 
+  public double getValorMultas() {
+    return valorMultas;
+  }
+
+  /**
+   * Lê a cobrança de uma imagem, com as etapas zeradas.
+   * @param entrada Fluxo de entrada da serialização.
+   * @throws IOException            Caso a leitura falhe.
+   * @throws ClassNotFoundException Caso a classe de um objeto não seja encontrada.
+   */
+  private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+    entrada.defaultReadObject();
+    this.etapas = new EtapasCobranca();
+  }
+
+  public EtapasCobranca getEtapas() {
+    return etapas;
+  }
+
   /**
    * Método que recebe o valor estimado de todas locações em andamento.
    * @return Retorna um valor estimado calculado das locações.
    */
 
   public double getValorEstimado() {
-    double total = 0.0;
-    for (Object o: imobiliaria.getLocacoesAtivas()) {
-      Locacao locacao = (Locacao) o;
-      // PATCH:
-      total += locacao.getValorTotal();
-    }
-    return total;
+    return imobiliaria.getValorEstimado();
   }
 
   @Override
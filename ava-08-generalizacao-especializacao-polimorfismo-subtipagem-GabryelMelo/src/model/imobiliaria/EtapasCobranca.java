@@ -0,0 +1,68 @@
+package model.imobiliaria;
+
+/**
+ * Tempo gasto em cada etapa do processamento de uma cobrança, para identificar o gargalo.
+ * Pode acumular várias cobranças para um resumo do fechamento do mês.
+ */
+public class EtapasCobranca {
+
+  public static final int SELECIONAR = 0;
+  public static final int CALCULAR = 1;
+  public static final int APLICAR = 2;
+  public static final int REGISTRAR = 3;
+  public static final int AGREGAR = 4;
+
+  private static final String[] NOMES = {
+    "selecionar", "calcular", "aplicar", "registrar", "agregar"
+  };
+
+  private final long[] duracoes = new long[NOMES.length];
+  private long locacoes;
+
+  void registrar(int etapa, long duracao) {
+    duracoes[etapa] += duracao;
+  }
+
+  void contar(int quantidade) {
+    locacoes += quantidade;
+  }
+
+  /**
+   * Soma as etapas de outra cobrança a estas.
+   * @param outra Etapas de outra cobrança.
+   */
+  public void acumular(EtapasCobranca outra) {
+    for (int i = 0; i < duracoes.length; i++) {
+      duracoes[i] += outra.duracoes[i];
+    }
+    locacoes += outra.locacoes;
+  }
+
+  public long getLocacoes() {
+    return locacoes;
+  }
+
+  public long getDuracao(int etapa) {
+    return duracoes[etapa];
+  }
+
+  /**
+   * Calcula a vazão de uma etapa.
+   * @param etapa Uma das constantes de etapa.
+   * @return Locações processadas por segundo na etapa.
+   */
+  public double getVazao(int etapa) {
+    return duracoes[etapa] == 0 ? 0.0 : locacoes / (duracoes[etapa] / 1e9);
+  }
+
+  @Override
+  public String toString() {
+    String str = "";
+    for (int i = 0; i < NOMES.length; i++) {
+      str += String.format("%-10s %10.3f ms %14.0f locações/s%n",
+          NOMES[i], duracoes[i] / 1e6, getVazao(i));
+    }
+    return str;
+  }
+
+}
@@ -0,0 +1,158 @@
+package model.imobiliaria;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Linha do tempo dos pagamentos de uma locação.
+ * Cada pagamento ocupa uma posição de vetores primitivos paralelos,
+ * sem um objeto por pagamento. Os vetores só são alocados no primeiro pagamento,
+ * e os de atraso e multas só no primeiro pagamento com atraso.
+ */
+public class HistoricoPagamentos implements Serializable {
+
+  private static final long serialVersionUID = 2L;
+
+  private static final int CAPACIDADE_INICIAL = 12;
+  // Cada pagamento com atraso guarda a multa fixa, a dos dias de atraso e a do condomínio.
+  private static final int COMPONENTES = 3;
+
+  private int[] periodos; // ano * 12 + (mes - 1)
+  private double[] valores;
+  private short[] atrasos;
+  private double[] multas;
+  private int quantidade;
+  private double totalPago;
+  private double totalMultas;
+
+  /**
+   * Registra o pagamento de uma cobrança, com as multas separadas por componente.
+   * @param ano             Ano da cobrança.
+   * @param mes             Mês da cobrança.
+   * @param atraso          Dias de atraso do pagamento.
+   * @param valorPago       Valor efetivamente pago.
+   * @param multaFixa       Multa fixa, calculada por {@link Locacao#getMultaFixa()}.
+   * @param multaAtraso     Multa pelos dias de atraso, de {@link Locacao#getMultaAtraso(int)}.
+   * @param multaCondominio Multa sobre o condomínio, de {@link Locacao#getMultaCondominio()}.
+   */
+  void registrar(int ano, int mes, int atraso, double valorPago, double multaFixa,
+      double multaAtraso, double multaCondominio) {
+    if (periodos == null) {
+      periodos = new int[CAPACIDADE_INICIAL];
+      valores = new double[CAPACIDADE_INICIAL];
+    } else if (quantidade == periodos.length) {
+      int capacidade = quantidade * 2;
+      periodos = Arrays.copyOf(periodos, capacidade);
+      valores = Arrays.copyOf(valores, capacidade);
+      if (multas != null) {
+        atrasos = Arrays.copyOf(atrasos, capacidade);
+        multas = Arrays.copyOf(multas, capacidade * COMPONENTES);
+      }
+    }
+    double multa = multaFixa + multaAtraso + multaCondominio;
+    if (multas == null && (atraso != 0 || multa != 0.0)) {
+      atrasos = new short[periodos.length];
+      multas = new double[periodos.length * COMPONENTES];
+    }
+    periodos[quantidade] = ano * 12 + (mes - 1);
+    valores[quantidade] = valorPago;
+    if (multas != null) {
+      atrasos[quantidade] = (short) Math.min(atraso, Short.MAX_VALUE);
+      int j = quantidade * COMPONENTES;
+      multas[j] = multaFixa;
+      multas[j + 1] = multaAtraso;
+      multas[j + 2] = multaCondominio;
+    }
+    quantidade++;
+    totalPago += valorPago;
+    totalMultas += multa;
+  }
+
+  public int getQuantidade() {
+    return quantidade;
+  }
+
+  public double getTotalPago() {
+    return totalPago;
+  }
+
+  public double getTotalMultas() {
+    return totalMultas;
+  }
+
+  public int getAno(int i) {
+    return periodos[i] / 12;
+  }
+
+  public int getMes(int i) {
+    return periodos[i] % 12 + 1;
+  }
+
+  public int getAtraso(int i) {
+    return atrasos == null ? 0 : atrasos[i];
+  }
+
+  public double getValorPago(int i) {
+    return valores[i];
+  }
+
+  public double getMulta(int i) {
+    return getMultaFixa(i) + getMultaAtraso(i) + getMultaCondominio(i);
+  }
+
+  public double getMultaFixa(int i) {
+    return multas == null ? 0.0 : multas[i * COMPONENTES];
+  }
+
+  public double getMultaAtraso(int i) {
+    return multas == null ? 0.0 : multas[i * COMPONENTES + 1];
+  }
+
+  public double getMultaCondominio(int i) {
+    return multas == null ? 0.0 : multas[i * COMPONENTES + 2];
+  }
+
+  /**
+   * Soma os valores pagos referentes a um período.
+   * @param ano Ano da cobrança.
+   * @param mes Mês da cobrança.
+   * @return Total pago no período.
+   */
+  public double getValorPago(int ano, int mes) {
+    int periodo = ano * 12 + (mes - 1);
+    double total = 0.0;
+    for (int i = 0; i < quantidade; i++) {
+      if (periodos[i] == periodo) {
+        total += valores[i];
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Soma os valores pagos nas cobranças de um ano.
+   * @param ano Ano das cobranças.
+   * @return Total pago no ano.
+   */
+  public double getTotalPago(int ano) {
+    int inicio = ano * 12;
+    double total = 0.0;
+    for (int i = 0; i < quantidade; i++) {
+      if (periodos[i] >= inicio && periodos[i] < inicio + 12) {
+        total += valores[i];
+      }
+    }
+    return total;
+  }
+
+  @Override
+  public String toString() {
+    String str = "";
+    for (int i = 0; i < quantidade; i++) {
+      str += getMes(i) + "/" + getAno(i) + ": " + valores[i]
+        + " (multa " + getMulta(i) + ", " + getAtraso(i) + " dia(s) de atraso)\n";
+    }
+    return str;
+  }
+
+}
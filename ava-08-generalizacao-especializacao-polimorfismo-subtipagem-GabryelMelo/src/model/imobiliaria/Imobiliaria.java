@@ -2,15 +2,36 @@ package model.imobiliaria;
 
 import exception.LocacaoDeveSerRenovada;
 import exception.LocacaoEmAndamento;
+import exception.LocacaoInvalida;
+import exception.LocacaoNaoContratada;
 import exception.PrazoMinimoComercial;
 import exception.PrazoMinimoResidencial;
+import java.io.Serializable;
+import java.util.Arrays;
+import monitoramento.EventoBag;
+import monitoramento.EventoLocacao;
+import monitoramento.Gravacao;
 import util.Bag;
+import util.FullBagException;
 
-public class Imobiliaria {
+public class Imobiliaria implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /** Quantidade máxima de locações contratadas em uma imobiliária. */
+  public static final int CAPACIDADE = 1000;
 
   private String nome;
-  private Bag locacoes = new Bag(1000);
-  private Bag cobrancas = new Bag(1000000);
+  private Bag locacoes = new Bag(CAPACIDADE);
+  // Versões imutáveis publicadas a cada escrita (copy-on-write): os relatórios leem
+  // uma versão consistente sem bloquear contratar e novaCobranca. As cobranças
+  // só são lidas dessa forma, então não têm uma Bag própria.
+  private volatile Object[] versaoLocacoes = new Object[0];
+  private volatile Object[] versaoCobrancas = new Object[0];
+  private final Indicadores indicadores = new Indicadores();
+  // Soma de getValorTotal() das locações ativas, ajustada a cada contratação,
+  // renovação e pagamento feitos pela imobiliária.
+  private volatile double valorEstimado;
 
   /**
    * Construtor da classe Imobiliaria.
@@ -25,6 +46,22 @@ public class Imobiliaria {
     return nome;
   }
 
+  public Indicadores getIndicadores() {
+    return indicadores;
+  }
+
+  /**
+   * Confere os indicadores incrementais e o valor estimado contra um recálculo completo
+   * sobre todas as locações.
+   * Pagamentos e renovações feitos diretamente na locação, fora da imobiliária
+   * e de suas cobranças, não são acompanhados pelos indicadores.
+   * @return true se os indicadores estiverem consistentes.
+   */
+
+  public boolean verificarIndicadores() {
+    return indicadores.verificar(this.versaoLocacoes, this.valorEstimado);
+  }
+
   @Override
   public String toString() {
     String str = "Imobiliaria " + nome + "\n";
@@ -33,7 +70,7 @@ public class Imobiliaria {
       str += o.toString() + "\n";
     }
     str += "Cobranças: \n";
-    for (Object o : this.cobrancas.toArray()) {
+    for (Object o : this.versaoCobrancas) {
       str += o.toString() + "\n";
     }
     return str;
@@ -45,8 +82,9 @@ public class Imobiliaria {
    */
 
   public Object[] getLocacoesAtivas() {
-    Bag ativas = new Bag(locacoes.count());
-    for (Object o : locacoes.toArray()) {
+    Object[] versao = this.versaoLocacoes;
+    Bag ativas = new Bag(versao.length);
+    for (Object o : versao) {
       Locacao l = (Locacao) o;
       if (l.getMeses() > 0) {
         ativas.add(l);
@@ -55,33 +93,57 @@ public class Imobiliaria {
     return ativas.toArray();
   }
 
+  /**
+   * Retorna o valor total das locações ativas, mantido a cada contratação,
+   * renovação e cobrança, sem percorrer as locações. Assim como os indicadores,
+   * não acompanha pagamentos e renovações feitos diretamente na locação.
+   * @return Valor estimado de uma cobrança sobre as locações ativas.
+   */
+
+  public double getValorEstimado() {
+    return valorEstimado;
+  }
+
+
   /**
    * Gera o contrato de locação de um imóvel, se o imóvel não estiver alugado ainda.
    * Define a quantidade mínima de meses de acordo com o tipo do imóvel.
    * @param locacao Recebe um imóvel Residencial, ou Apartamento.
    * @throws LocacaoDeveSerRenovada Lança a exceção caso o imóvel já estiver alugado.
+   * @throws FullBagException       Caso a imobiliária já tenha {@link #CAPACIDADE} locações.
    */
 
-  public void contratar(Locacao locacao) {
-    if (locacoes.has(locacao)) {
+  public synchronized void contratar(Locacao locacao) {
+    if (this.contem(locacao)) {
       throw new LocacaoDeveSerRenovada();
     }
+    EventoLocacao evento = iniciarEvento();
+    locacoes.add(locacao); // antes de alterar a locação, que fica intacta se a Bag estiver cheia
     locacao.setPrazo(12); // mínimo não comercial
-    locacoes.add(locacao);
+    versaoLocacoes = publicar(versaoLocacoes, locacao);
+    valorEstimado += locacao.getValorTotal();
+    indicadores.contratar(locacao);
+    this.registrarEvento(evento, "contratar", locacao);
   }
 
   /**
    * Sobrecarga do método contratar, recebe um imóvel do tipo Comercial.
    * @param locacao Recebe um imóvel Comercial alugável.
    * @throws LocacaoDeveSerRenovada Lança a exceção caso o imóvel já estiver alugado.
+   * @throws FullBagException       Caso a imobiliária já tenha {@link #CAPACIDADE} locações.
    */
 
-  public void contratar(LocacaoComercial locacao) {
-    if (locacoes.has(locacao)) {
+  public synchronized void contratar(LocacaoComercial locacao) {
+    if (this.contem(locacao)) {
       throw new LocacaoDeveSerRenovada();
     }
+    EventoLocacao evento = iniciarEvento();
+    locacoes.add(locacao); // antes de alterar a locação, que fica intacta se a Bag estiver cheia
     locacao.setPrazo(6); // mínimo comercial
-    locacoes.add(locacao);
+    versaoLocacoes = publicar(versaoLocacoes, locacao);
+    valorEstimado += locacao.getValorTotal();
+    indicadores.contratar(locacao);
+    this.registrarEvento(evento, "contratar", locacao);
   }
 
   /**
@@ -90,20 +152,28 @@ public class Imobiliaria {
    * @param reajuste O valor do reajuste (caso haja).
    * @param extra    O valor extra (caso haja).
    * @param prazo    O vencimento do contrato.
+   * @throws LocacaoNaoContratada  Caso o imóvel não tenha sido contratado nesta imobiliária.
    * @throws LocacaoEmAndamento    Caso o contrato atual tenha mais de 0 meses.
    * @throws PrazoMinimoResidencia Caso o prazo minimo do contrato seja menor que 12 meses.
    * @throws PrazoMinimoComercial  Caso o prazo minimo do contrato seja menor que 6 meses.
    */
 
-  public void renovar(LocacaoComercial locacao, double reajuste, double extra, int prazo) {
+  public synchronized void renovar(LocacaoComercial locacao, double reajuste, double extra,
+      int prazo) {
+    if (!this.contem(locacao)) {
+      throw new LocacaoNaoContratada();
+    }
     if (locacao.getMeses() > 0) {
       throw new LocacaoEmAndamento();
     }
     if (prazo < 6) {
       throw new PrazoMinimoComercial();
     }
-    locacao.setPrazo(prazo);
-    locacao.renovar(reajuste, extra);
+    EventoLocacao evento = iniciarEvento();
+    locacao.renovar(prazo, reajuste, extra);
+    valorEstimado += locacao.getValorTotal(); // vencida, não somava nada
+    indicadores.renovar(locacao);
+    this.registrarEvento(evento, "renovar", locacao);
   }
 
   /**
@@ -112,20 +182,221 @@ public class Imobiliaria {
    * @param reajuste O valor do reajuste (caso haja).
    * @param extra    O valor extra (caso haja).
    * @param prazo    O vencimento do contrato.
+   * @throws LocacaoNaoContratada  Caso o imóvel não tenha sido contratado nesta imobiliária.
    * @throws LocacaoEmAndamento    Caso o contrato atual tenha mais de 0 meses.
    * @throws PrazoMinimoResidencia Caso o prazo minimo do contrato seja menor que 12 meses.
    * @throws PrazoMinimoComercial  Caso o prazo minimo do contrato seja menor que 6 meses.
    */
 
-  public void renovar(Locacao locacao, double reajuste, double extra, int prazo) {
+  public synchronized void renovar(Locacao locacao, double reajuste, double extra, int prazo) {
+    if (!this.contem(locacao)) {
+      throw new LocacaoNaoContratada();
+    }
     if (locacao.getMeses() > 0) {
       throw new LocacaoEmAndamento();
     }
     if (prazo < 12) {
       throw new PrazoMinimoResidencial();
     }
-    locacao.setPrazo(prazo);
-    locacao.renovar(reajuste, extra);
+    EventoLocacao evento = iniciarEvento();
+    locacao.renovar(prazo, reajuste, extra);
+    valorEstimado += locacao.getValorTotal(); // vencida, não somava nada
+    indicadores.renovar(locacao);
+    this.registrarEvento(evento, "renovar", locacao);
+  }
+
+  /**
+   * Renova em lote os contratos vencidos, cada um com seus próprios termos.
+   * Primeiro valida todo o lote e depois aplica os novos termos às renovações válidas.
+   * O prazo mínimo é o do tipo de cada imóvel e só são renovados imóveis contratados
+   * nesta imobiliária. Nenhuma exceção é lançada:
+   * as renovações rejeitadas ficam com o motivo em {@link Renovacao#getErro()}.
+   * @param renovacoes Bolsa de {@link Renovacao} com os novos termos de cada imóvel.
+   * @return Quantidade de contratos renovados.
+   */
+
+  public synchronized int renovar(Bag renovacoes) {
+    Object[] lote = renovacoes.toArray();
+    for (Object o : lote) {
+      Renovacao renovacao = (Renovacao) o;
+      renovacao.setErro(this.validarRenovacao(renovacao.getLocacao(), renovacao.getPrazo()));
+    }
+    int renovadas = 0;
+    for (Object o : lote) {
+      Renovacao renovacao = (Renovacao) o;
+      if (!renovacao.isRenovada()) {
+        continue;
+      }
+      Locacao locacao = renovacao.getLocacao();
+      if (locacao.getMeses() > 0) { // o mesmo imóvel já foi renovado neste lote
+        renovacao.setErro(new LocacaoEmAndamento());
+        continue;
+      }
+      EventoLocacao evento = iniciarEvento();
+      locacao.renovar(renovacao.getPrazo(), renovacao.getReajuste(), renovacao.getExtra());
+      valorEstimado += locacao.getValorTotal();
+      indicadores.renovar(locacao);
+      this.registrarEvento(evento, "renovar", locacao);
+      renovadas++;
+    }
+    return renovadas;
+  }
+
+  /**
+   * Verifica, sem lançar exceção, se um imóvel pode ser contratado.
+   * @param locacao Imóvel a ser contratado.
+   * @return LocacaoInvalida caso o imóvel não seja informado, LocacaoDeveSerRenovada caso
+   *         já esteja alugado, ou null caso contrário.
+   */
+
+  public RuntimeException validarContratacao(Locacao locacao) {
+    if (locacao == null) {
+      return new LocacaoInvalida();
+    }
+    if (this.contem(locacao)) {
+      return new LocacaoDeveSerRenovada();
+    }
+    return null;
+  }
+
+  /**
+   * Verifica, sem lançar exceção, se um contrato pode ser renovado com o prazo informado.
+   * Só podem ser renovados imóveis contratados nesta imobiliária.
+   * O prazo mínimo é o do tipo do imóvel: 6 meses para comercial e 12 para os demais.
+   * @param locacao Imóvel a ser renovado.
+   * @param prazo   O vencimento do novo contrato.
+   * @return A exceção que a renovação lançaria, ou null se puder ser renovado.
+   */
+
+  public RuntimeException validarRenovacao(Locacao locacao, int prazo) {
+    if (locacao == null) {
+      return new LocacaoInvalida();
+    }
+    if (!this.contem(locacao)) {
+      return new LocacaoNaoContratada();
+    }
+    if (locacao.getMeses() > 0) {
+      return new LocacaoEmAndamento();
+    }
+    return locacao.validarPrazo(prazo);
+  }
+
+  /**
+   * Atualiza os indicadores e o valor estimado com os pagamentos de uma cobrança.
+   * A cobrança já mantém o bloqueio da imobiliária desde a seleção das locações,
+   * então cada locação paga teve exatamente uma parcela cobrada.
+   * @param pagas        Locações pagas na cobrança.
+   * @param valoresBase  Valor total de cada locação antes do pagamento.
+   * @param valoresPagos Valor pago por cada locação, com multas.
+   */
+
+  synchronized void registrarPagamentos(Object[] pagas, double[] valoresBase,
+      double[] valoresPagos) {
+    for (int i = 0; i < pagas.length; i++) {
+      Locacao locacao = (Locacao) pagas[i];
+      indicadores.pagar(locacao, valoresPagos[i], valoresPagos[i] - valoresBase[i]);
+      // A taxa comercial sai do valor após a primeira parcela e a locação vencida sai do total.
+      double valorSeguinte = locacao.getMeses() > 0 ? locacao.getValorTotal() : 0.0;
+      valorEstimado += valorSeguinte - valoresBase[i];
+    }
+    // Sem locações ativas o total é exatamente zero; descarta o arredondamento acumulado.
+    if (indicadores.getQuantidadeAtivas() == 0) {
+      valorEstimado = 0.0;
+    }
+  }
+
+  /**
+   * Verifica se a locação foi contratada nesta imobiliária, varrendo a Bag de locações.
+   * A varredura é registrada no JFR aqui, e não na Bag, para que util não dependa
+   * do monitoramento e operações em O(1), como add, não gerem eventos.
+   * @param locacao A locação procurada.
+   * @return true se a locação estiver contratada.
+   */
+
+  private boolean contem(Locacao locacao) {
+    if (!Gravacao.ativa()) {
+      return locacoes.has(locacao);
+    }
+    EventoBag evento = new EventoBag();
+    evento.begin();
+    boolean contida = locacoes.has(locacao);
+    evento.end();
+    if (evento.shouldCommit()) {
+      evento.operacao = "has";
+      evento.capacidade = CAPACIDADE;
+      evento.objetos = locacoes.count();
+      evento.commit();
+    }
+    return contida;
+  }
+
+  /**
+   * Inicia o evento JFR de uma contratação ou renovação.
+   * @return O evento iniciado, ou null se o JFR não estiver ativo.
+   */
+
+  private static EventoLocacao iniciarEvento() {
+    if (!Gravacao.ativa()) {
+      return null;
+    }
+    EventoLocacao evento = new EventoLocacao();
+    evento.begin();
+    return evento;
+  }
+
+  /**
+   * Registra no JFR o evento de contratação ou renovação, caso esteja habilitado.
+   * @param evento   O evento iniciado antes da operação.
+   * @param operacao Nome da operação realizada.
+   * @param locacao  A locação contratada ou renovada.
+   */
+
+  private void registrarEvento(EventoLocacao evento, String operacao, Locacao locacao) {
+    if (evento == null) {
+      return;
+    }
+    evento.end();
+    if (evento.shouldCommit()) {
+      evento.operacao = operacao;
+      evento.tipo = locacao.getTipo();
+      evento.endereco = locacao.getEndereco();
+      evento.prazo = locacao.getMeses();
+      evento.commit();
+    }
+  }
+
+  /**
+   * Busca uma locação contratada pelo endereço do imóvel.
+   * @param endereco Endereço do imóvel.
+   * @return A locação contratada no endereço, ou null se não houver.
+   */
+
+  public Locacao getLocacao(String endereco) {
+    String interno = endereco.intern(); // os endereços das locações são internos
+    for (Object o : this.versaoLocacoes) {
+      Locacao locacao = (Locacao) o;
+      if (locacao.getEndereco() == interno) {
+        return locacao;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Busca a cobrança já gerada para um período.
+   * @param ano Ano da cobrança.
+   * @param mes Mês da cobrança.
+   * @return A cobrança do período, ou null se ainda não foi gerada.
+   */
+
+  public Cobranca getCobranca(int ano, int mes) {
+    for (Object o : this.versaoCobrancas) {
+      Cobranca cobranca = (Cobranca) o;
+      if (cobranca.getAno() == ano && cobranca.getMes() == mes) {
+        return cobranca;
+      }
+    }
+    return null;
   }
 
   /**
@@ -135,10 +406,25 @@ public class Imobiliaria {
    * @return Retorna a nova cobrança gerada.
    */
 
-  public Cobranca novaCobranca(int ano, int mes) {
+  public synchronized Cobranca novaCobranca(int ano, int mes) {
     Cobranca cobranca = new Cobranca(this, ano, mes);
-    cobrancas.add(cobranca);
+    versaoCobrancas = publicar(versaoCobrancas, cobranca);
     return cobranca;
   }
 
+  /**
+   * Cria uma nova versão imutável acrescentando um objeto à versão atual.
+   * A versão anterior continua válida para quem já a estiver lendo e é
+   * descartada pelo coletor de lixo quando não houver mais leitores.
+   * @param versao Versão publicada atualmente.
+   * @param o      Objeto acrescentado.
+   * @return A nova versão a ser publicada.
+   */
+
+  private static Object[] publicar(Object[] versao, Object o) {
+    Object[] nova = Arrays.copyOf(versao, versao.length + 1);
+    nova[versao.length] = o;
+    return nova;
+  }
+
 }
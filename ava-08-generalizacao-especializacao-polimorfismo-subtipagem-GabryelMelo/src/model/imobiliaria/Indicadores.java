@@ -0,0 +1,219 @@
+package model.imobiliaria;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Indicadores gerenciais da imobiliária, atualizados a cada contratação,
+ * renovação e pagamento de cobrança, para que as consultas não precisem
+ * percorrer as locações. A imobiliária só os atualiza dentro dos seus
+ * métodos sincronizados.
+ */
+public class Indicadores implements Serializable {
+
+  private static final long serialVersionUID = 2L;
+
+  /** Contratos com até esta quantidade de meses restantes estão a vencer. */
+  public static final int MESES_A_VENCER = 3;
+
+  // Um total por tipo de imóvel, na ordem em que os tipos aparecem. São poucos tipos,
+  // então a busca percorre o vetor sem criar objetos a cada pagamento.
+  private TotalPorTipo[] porTipo = new TotalPorTipo[3];
+  private int quantidadeTipos;
+  private int quantidadeAtivas;
+  private int quantidadeAVencer;
+  private int quantidadeVencidas;
+  private double receitaTotal;
+  private double multasTotal;
+
+  void contratar(Locacao locacao) {
+    this.totalDoTipo(locacao.getTipo()).ativas++;
+    quantidadeAtivas++;
+    if (aVencer(locacao.getMeses())) {
+      quantidadeAVencer++;
+    }
+  }
+
+  void renovar(Locacao locacao) {
+    this.totalDoTipo(locacao.getTipo()).ativas++;
+    quantidadeAtivas++;
+    quantidadeVencidas--;
+    if (aVencer(locacao.getMeses())) {
+      quantidadeAVencer++;
+    }
+  }
+
+  void pagar(Locacao locacao, double valorPago, double multa) {
+    TotalPorTipo total = this.totalDoTipo(locacao.getTipo());
+    total.receita += valorPago;
+    total.multas += multa;
+    receitaTotal += valorPago;
+    multasTotal += multa;
+    int meses = locacao.getMeses(); // o pagamento já descontou um mês
+    if (aVencer(meses + 1)) {
+      quantidadeAVencer--;
+    }
+    if (aVencer(meses)) {
+      quantidadeAVencer++;
+    }
+    if (meses == 0) {
+      total.ativas--;
+      quantidadeAtivas--;
+      quantidadeVencidas++;
+    }
+  }
+
+  private static boolean aVencer(int meses) {
+    return meses > 0 && meses <= MESES_A_VENCER;
+  }
+
+  public int getQuantidadeAtivas() {
+    return quantidadeAtivas;
+  }
+
+  /**
+   * Retorna quantos contratos ativos vencem nos próximos {@link #MESES_A_VENCER} meses.
+   * @return Quantidade de locações a vencer.
+   */
+  public int getQuantidadeAVencer() {
+    return quantidadeAVencer;
+  }
+
+  /**
+   * Retorna quantos contratos chegaram ao fim e aguardam renovação.
+   * @return Quantidade de locações vencidas.
+   */
+  public int getQuantidadeVencidas() {
+    return quantidadeVencidas;
+  }
+
+  public double getReceitaTotal() {
+    return receitaTotal;
+  }
+
+  public double getMultasTotal() {
+    return multasTotal;
+  }
+
+  public int getQuantidadeAtivas(String tipo) {
+    TotalPorTipo total = this.buscar(tipo);
+    return total == null ? 0 : total.ativas;
+  }
+
+  public double getReceita(String tipo) {
+    TotalPorTipo total = this.buscar(tipo);
+    return total == null ? 0.0 : total.receita;
+  }
+
+  public double getMultas(String tipo) {
+    TotalPorTipo total = this.buscar(tipo);
+    return total == null ? 0.0 : total.multas;
+  }
+
+  /**
+   * Confere os indicadores contra um recálculo completo a partir das locações
+   * e de seus históricos de pagamento.
+   * @param locacoes      Todas as locações contratadas na imobiliária.
+   * @param valorEstimado Total incremental das locações ativas mantido pela imobiliária.
+   * @return true se os indicadores incrementais coincidirem com o recálculo.
+   */
+  boolean verificar(Object[] locacoes, double valorEstimado) {
+    Indicadores recalculo = new Indicadores();
+    double estimado = 0.0;
+    for (Object o : locacoes) {
+      Locacao locacao = (Locacao) o;
+      TotalPorTipo total = recalculo.totalDoTipo(locacao.getTipo());
+      HistoricoPagamentos historico = locacao.getHistorico();
+      total.receita += historico.getTotalPago();
+      total.multas += historico.getTotalMultas();
+      recalculo.receitaTotal += historico.getTotalPago();
+      recalculo.multasTotal += historico.getTotalMultas();
+      if (aVencer(locacao.getMeses())) {
+        recalculo.quantidadeAVencer++;
+      }
+      if (locacao.getMeses() > 0) {
+        total.ativas++;
+        recalculo.quantidadeAtivas++;
+        estimado += locacao.getValorTotal();
+      } else {
+        recalculo.quantidadeVencidas++;
+      }
+    }
+    if (quantidadeAtivas != recalculo.quantidadeAtivas
+        || quantidadeAVencer != recalculo.quantidadeAVencer
+        || quantidadeVencidas != recalculo.quantidadeVencidas
+        || !iguais(receitaTotal, recalculo.receitaTotal)
+        || !iguais(multasTotal, recalculo.multasTotal)
+        || !iguais(valorEstimado, estimado)) {
+      return false;
+    }
+    for (int i = 0; i < recalculo.quantidadeTipos; i++) {
+      TotalPorTipo esperado = recalculo.porTipo[i];
+      if (getQuantidadeAtivas(esperado.tipo) != esperado.ativas
+          || !iguais(getReceita(esperado.tipo), esperado.receita)
+          || !iguais(getMultas(esperado.tipo), esperado.multas)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // As somas são feitas em ordens diferentes, então toleram o erro de arredondamento.
+  private static boolean iguais(double a, double b) {
+    return Math.abs(a - b) <= 1e-9 * Math.max(1.0, Math.max(Math.abs(a), Math.abs(b)));
+  }
+
+  private TotalPorTipo buscar(String tipo) {
+    for (int i = 0; i < quantidadeTipos; i++) {
+      TotalPorTipo total = porTipo[i];
+      // getTipo() retorna literais, então a comparação por referência quase sempre basta.
+      if (total.tipo == tipo || total.tipo.equals(tipo)) {
+        return total;
+      }
+    }
+    return null;
+  }
+
+  private TotalPorTipo totalDoTipo(String tipo) {
+    TotalPorTipo total = this.buscar(tipo);
+    if (total == null) {
+      if (quantidadeTipos == porTipo.length) {
+        porTipo = Arrays.copyOf(porTipo, porTipo.length * 2);
+      }
+      total = new TotalPorTipo(tipo);
+      porTipo[quantidadeTipos++] = total;
+    }
+    return total;
+  }
+
+  @Override
+  public String toString() {
+    String str = "Indicadores: " + quantidadeAtivas + " ativa(s), "
+      + quantidadeAVencer + " a vencer, " + quantidadeVencidas + " vencida(s), receita "
+      + receitaTotal + ", multas " + multasTotal + "\n";
+    for (int i = 0; i < quantidadeTipos; i++) {
+      str += porTipo[i].toString() + "\n";
+    }
+    return str;
+  }
+
+  private static class TotalPorTipo implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String tipo;
+    private int ativas;
+    private double receita;
+    private double multas;
+
+    TotalPorTipo(String tipo) {
+      this.tipo = tipo;
+    }
+
+    @Override
+    public String toString() {
+      return tipo + ": " + ativas + " ativa(s), receita " + receita + ", multas " + multas;
+    }
+  }
+
+}
@@ -5,11 +5,17 @@ import exception.ImovelInvalido;
 import exception.PrazoMinimoResidencial;
 import exception.QuartoInvalido;
 import exception.ValorInvalido;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Objects;
 
-public abstract class Locacao {
+public abstract class Locacao implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   // Adicionei cada parâmetro na sua linha para ficar correto no CheckStyle.
-  private final String endereco;
+  private String endereco; // sempre interno: locações comparam endereços por referência
   private final int quartos;
   private final int garagem;
   private double valor;
@@ -17,6 +23,7 @@ public abstract class Locacao {
   protected int meses;
   protected int prazo;
   protected double ultimoValorPago;
+  private final HistoricoPagamentos historico = new HistoricoPagamentos();
 
   /**
    * Construtor da classe Locacao.
@@ -33,25 +40,41 @@ public abstract class Locacao {
    */
 
   protected Locacao(String endereco, int quartos, int garagem, double valor, double extra) {
-    if (garagem < 0) {
-      throw new GaragemInvalida();
-    }
-    if (quartos < 0) {
-      throw new QuartoInvalido();
+    RuntimeException erro = validar(quartos, garagem, valor, extra);
+    if (erro != null) {
+      throw erro;
     }
-    if (valor < 0) {
-      throw new ValorInvalido();
-    }
-    if (extra < 0) {
-      throw new ValorInvalido();
-    }
-    this.endereco = endereco;
+    // Endereços iguais passam a compartilhar a mesma instância de String.
+    this.endereco = endereco == null ? null : endereco.intern();
     this.quartos = quartos;
     this.garagem = garagem;
     this.valor = valor;
     this.extra = extra;
   }
 
+  /**
+   * Valida os dados de uma locação sem lançar exceção,
+   * para que importações em lote possam rejeitar linhas inválidas.
+   * @param quartos Quantidade de quartos.
+   * @param garagem Quantidade de garagem(s).
+   * @param valor   Valor do contrato.
+   * @param extra   Valor extra do contrato (Condomínio ou taxa comercial).
+   * @return A exceção que o construtor lançaria, ou null se os dados forem válidos.
+   */
+
+  public static RuntimeException validar(int quartos, int garagem, double valor, double extra) {
+    if (garagem < 0) {
+      return new GaragemInvalida();
+    }
+    if (quartos < 0) {
+      return new QuartoInvalido();
+    }
+    if (valor < 0 || extra < 0) {
+      return new ValorInvalido();
+    }
+    return null;
+  }
+
   public int getMeses() {
     return this.meses;
   }
@@ -68,6 +91,10 @@ public abstract class Locacao {
     return ultimoValorPago;
   }
 
+  public HistoricoPagamentos getHistorico() {
+    return historico;
+  }
+
   public double getTaxaComercial() {
     return this.extra;
   }
@@ -88,6 +115,13 @@ public abstract class Locacao {
     return quartos;
   }
 
+  /**
+   * Retorna o tipo do imóvel, usado para agrupar os indicadores da imobiliária.
+   * @return Nome do tipo do imóvel.
+   */
+
+  public abstract String getTipo();
+
   /**
    * Método que retorna o valor total do contrato dos imóveis.
    * @return Valor total dos contratos.
@@ -97,6 +131,10 @@ public abstract class Locacao {
     return this.getValor();
   }
 
+  public int getPrazo() {
+    return this.prazo;
+  }
+
   /**
    * Método que define um prazo para o fim do contrato.
    * @param prazo Um inteiro referente a quantidade de meses do contrato.
@@ -104,13 +142,27 @@ public abstract class Locacao {
    */
 
   public void setPrazo(int prazo) {
-    if (prazo < 12) {
-      throw new PrazoMinimoResidencial();
+    RuntimeException erro = this.validarPrazo(prazo);
+    if (erro != null) {
+      throw erro;
     }
     this.prazo = prazo;
     this.meses = prazo;
   }
 
+  /**
+   * Valida o prazo de um contrato sem lançar exceção.
+   * @param prazo Um inteiro referente a quantidade de meses do contrato.
+   * @return PrazoMinimoResidencial caso o prazo seja menor que 12 meses, ou null se for válido.
+   */
+
+  public RuntimeException validarPrazo(int prazo) {
+    if (prazo < 12) {
+      return new PrazoMinimoResidencial();
+    }
+    return null;
+  }
+
   /**
    * Método para renovar o contrato de locação.
    * @param percentual Percentual para reajuste de valor.
@@ -180,21 +232,76 @@ public abstract class Locacao {
       return 0;
     }
     double valorPago = this.getValorTotal();
-    valorPago += 0.03 * this.getValor() + (atraso * 0.01 * this.getValor());
+    valorPago += this.getMultaFixa() + this.getMultaAtraso(atraso);
+    valorPago += this.getMultaCondominio();
     this.meses = this.meses - 1;
     ultimoValorPago = valorPago;
     return valorPago;
   }
 
+  /**
+   * Multa fixa de um pagamento com atraso, de 3% do valor do contrato.
+   * @return Retorna o valor da multa fixa.
+   */
+
+  public double getMultaFixa() {
+    return 0.03 * this.getValor();
+  }
+
+  /**
+   * Multa proporcional aos dias de atraso, de 1% do valor do contrato por dia.
+   * @param atraso Recebe como parâmetro o valor do atraso.
+   * @return Retorna o valor da multa pelos dias de atraso.
+   */
+
+  public double getMultaAtraso(int atraso) {
+    return atraso * 0.01 * this.getValor();
+  }
+
+  /**
+   * Multa sobre o condomínio de um pagamento com atraso.
+   * @return Retorna 0, já que só apartamentos cobram condomínio.
+   */
+
+  public double getMultaCondominio() {
+    return 0.0;
+  }
+
+  /**
+   * Lê a locação e passa o endereço para a instância interna da String,
+   * como no construtor, para que equals possa comparar por referência.
+   * @param entrada Fluxo de entrada da serialização.
+   * @throws IOException            Caso a leitura falhe.
+   * @throws ClassNotFoundException Caso a classe de um objeto não seja encontrada.
+   */
+  private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+    entrada.defaultReadObject();
+    this.endereco = this.endereco == null ? null : this.endereco.intern();
+  }
+
+  /**
+   * Duas locações são iguais quando se referem ao mesmo endereço,
+   * mesmo que as Strings tenham sido lidas de origens diferentes.
+   * Os endereços são internos, então a comparação é por referência
+   * e não percorre os caracteres de endereços diferentes.
+   * @param obj Objeto a ser comparado.
+   * @return true se o objeto for uma locação do mesmo endereço.
+   */
   @Override
   public boolean equals(Object obj) {
-    if (obj instanceof Locacao) {
-      Locacao outraLocacao = (Locacao) obj;
-      if (this.endereco == outraLocacao.endereco) {
-        return true;
-      }
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Locacao)) {
+      return false;
     }
-    return super.equals(obj);
+    Locacao outraLocacao = (Locacao) obj;
+    return this.endereco == outraLocacao.endereco;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(this.endereco);
   }
 
 }
@@ -2,6 +2,8 @@ package model.imobiliaria;
 
 public class LocacaoApartamento extends Locacao {
 
+  private static final long serialVersionUID = 1L;
+
   private int prazoMinimo;
 
   /**
@@ -23,6 +25,7 @@ public class LocacaoApartamento extends Locacao {
     return this.prazoMinimo;
   }
 
+  @Override
   public String getTipo() {
     return "Apartamento";
   }
@@ -38,20 +41,12 @@ public class LocacaoApartamento extends Locacao {
   }
 
   /**
-   * Sobrescreve o método que paga uma cobrança com atraso.
-   * @param atraso Recebe como parâmetro o valor do atraso.
+   * Sobrescreve o método getMultaCondominio(), da classe Locacao.
+   * @return Retorna 10% do valor do condomínio.
    */
   @Override
-  public double pagar(int atraso) {
-    if (this.getMeses() <= 0) {
-      return 0;
-    }
-    double valorPago = this.getValorTotal();
-    valorPago += 0.03 * this.getValor() + (atraso * 0.01 * this.getValor());
-    valorPago += 0.10 * this.getValorCondominio();
-    this.meses = this.meses - 1;
-    ultimoValorPago = valorPago;
-    return valorPago;
+  public double getMultaCondominio() {
+    return 0.10 * this.getValorCondominio();
   }
 
   @Override
@@ -4,6 +4,8 @@ import exception.PrazoMinimoComercial;
 
 public class LocacaoComercial extends Locacao {
 
+  private static final long serialVersionUID = 1L;
+
   private int prazoMinimo;
 
   /**
@@ -26,6 +28,7 @@ public class LocacaoComercial extends Locacao {
     return this.prazoMinimo;
   }
 
+  @Override
   public String getTipo() {
     return "Comercial";
   }
@@ -44,35 +47,39 @@ public class LocacaoComercial extends Locacao {
   }
 
   /**
-   * Sobrescreve o método setPrazo(), da classe Locacao.
+   * Sobrescreve o método validarPrazo(), da classe Locacao,
+   * usado por setPrazo() para exigir o prazo mínimo comercial.
    * @param prazo Recebe um inteiro equivalente a quantidade de meses do novo prazo.
+   * @return PrazoMinimoComercial caso o prazo seja menor que 6 meses, ou null se for válido.
    */
 
   @Override
-  public void setPrazo(int prazo) {
+  public RuntimeException validarPrazo(int prazo) {
     if (prazo < 6) {
-      throw new PrazoMinimoComercial();
+      return new PrazoMinimoComercial();
     }
-    this.prazo = prazo;
-    this.meses = prazo;
+    return null;
   }
 
   /**
-   * Sobrescreve o método pagar(), da classe Locacao.
-   * Paga uma cobrança com atraso.
+   * Sobrescreve o método getMultaFixa(), da classe Locacao.
+   * @return Retorna 5% do valor total, que inclui a taxa comercial no primeiro mês.
+   */
+
+  @Override
+  public double getMultaFixa() {
+    return 0.05 * this.getValorTotal();
+  }
+
+  /**
+   * Sobrescreve o método getMultaAtraso(), da classe Locacao.
    * @param atraso Recebe como parâmetro o valor do atraso.
+   * @return Retorna 1% do valor total por dia de atraso.
    */
 
   @Override
-  public double pagar(int atraso) {
-    if (this.getMeses() <= 0) {
-      return 0;
-    }
-    double valorPago = this.getValorTotal();
-    valorPago += 0.05 * this.getValorTotal() + (atraso * 0.01 * this.getValorTotal());
-    this.meses = this.meses - 1;
-    ultimoValorPago = valorPago;
-    return valorPago;
+  public double getMultaAtraso(int atraso) {
+    return atraso * 0.01 * this.getValorTotal();
   }
 
   /**
@@ -2,6 +2,8 @@ package model.imobiliaria;
 
 public class LocacaoResidencial extends Locacao {
 
+  private static final long serialVersionUID = 1L;
+
   private int prazoMinimo;
 
   /**
@@ -24,6 +26,7 @@ public class LocacaoResidencial extends Locacao {
     return this.prazoMinimo;
   }
 
+  @Override
   public String getTipo() {
     return "Residencial";
   }
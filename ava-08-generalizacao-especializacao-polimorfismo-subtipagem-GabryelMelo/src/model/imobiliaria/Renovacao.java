@@ -0,0 +1,60 @@
+package model.imobiliaria;
+
+public class Renovacao {
+
+  private final Locacao locacao;
+  private final double reajuste;
+  private final double extra;
+  private final int prazo;
+  private RuntimeException erro;
+
+  /**
+   * Construtor da classe Renovacao.
+   * Descreve os novos termos de um contrato a ser renovado em lote, recebendo:
+   * @param locacao  Imóvel a ser renovado.
+   * @param reajuste Percentual de reajuste do valor.
+   * @param extra    Novo valor extra (Condomínio ou taxa comercial).
+   * @param prazo    Novo prazo do contrato, em meses.
+   */
+
+  public Renovacao(Locacao locacao, double reajuste, double extra, int prazo) {
+    this.locacao = locacao;
+    this.reajuste = reajuste;
+    this.extra = extra;
+    this.prazo = prazo;
+  }
+
+  public Locacao getLocacao() {
+    return locacao;
+  }
+
+  public double getReajuste() {
+    return reajuste;
+  }
+
+  public double getExtra() {
+    return extra;
+  }
+
+  public int getPrazo() {
+    return prazo;
+  }
+
+  /**
+   * Retorna o motivo pelo qual a renovação foi rejeitada.
+   * @return A exceção que a renovação individual lançaria, ou null se foi renovada.
+   */
+
+  public RuntimeException getErro() {
+    return erro;
+  }
+
+  void setErro(RuntimeException erro) {
+    this.erro = erro;
+  }
+
+  public boolean isRenovada() {
+    return erro == null;
+  }
+
+}
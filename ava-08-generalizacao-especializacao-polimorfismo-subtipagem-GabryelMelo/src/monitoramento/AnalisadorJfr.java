@@ -0,0 +1,114 @@
+package monitoramento;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import util.Bag;
+
+/**
+ * Resume, fora da aplicação, os eventos da imobiliária gravados em um arquivo .jfr.
+ * Uso: java monitoramento.AnalisadorJfr gravacao.jfr
+ */
+public class AnalisadorJfr {
+
+  private final Bag resumos = new Bag(100);
+
+  /**
+   * Lê um arquivo de gravação e acumula os eventos da imobiliária.
+   * @param arquivo Caminho do arquivo .jfr.
+   * @throws IOException Caso o arquivo não possa ser lido.
+   */
+  public void analisar(Path arquivo) throws IOException {
+    try (RecordingFile gravacao = new RecordingFile(arquivo)) {
+      while (gravacao.hasMoreEvents()) {
+        this.acumular(gravacao.readEvent());
+      }
+    }
+  }
+
+  private void acumular(RecordedEvent evento) {
+    String nome = evento.getEventType().getName();
+    String chave;
+    double metrica;
+    switch (nome) {
+      case "imobiliaria.Bag":
+        chave = nome + "." + evento.getString("operacao");
+        metrica = evento.getInt("objetos");
+        break;
+      case "imobiliaria.Cobranca":
+        chave = nome;
+        metrica = evento.getDouble("valorArrecadado");
+        break;
+      case "imobiliaria.Locacao":
+        chave = nome + "." + evento.getString("operacao");
+        metrica = 1;
+        break;
+      default:
+        return;
+    }
+    this.resumo(chave).acumular(evento.getDuration().toNanos(), metrica);
+  }
+
+  private Resumo resumo(String chave) {
+    for (Object o : this.resumos.toArray()) {
+      Resumo resumo = (Resumo) o;
+      if (resumo.chave.equals(chave)) {
+        return resumo;
+      }
+    }
+    Resumo resumo = new Resumo(chave);
+    this.resumos.add(resumo);
+    return resumo;
+  }
+
+  @Override
+  public String toString() {
+    String str = String.format("%-30s %10s %14s %14s %18s%n",
+        "Evento", "Qtd", "Total (ms)", "Média (us)", "Métrica");
+    for (Object o : this.resumos.toArray()) {
+      str += o.toString();
+    }
+    return str;
+  }
+
+  /**
+   * Ponto de entrada do analisador.
+   * @param args Caminho do arquivo .jfr a ser resumido.
+   * @throws IOException Caso o arquivo não possa ser lido.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Uso: java monitoramento.AnalisadorJfr <gravacao.jfr>");
+      System.exit(1);
+    }
+    AnalisadorJfr analisador = new AnalisadorJfr();
+    analisador.analisar(Path.of(args[0]));
+    System.out.print(analisador);
+  }
+
+  private static class Resumo {
+
+    private final String chave;
+    private long quantidade;
+    private long duracaoTotal;
+    private double metrica;
+
+    Resumo(String chave) {
+      this.chave = chave;
+    }
+
+    void acumular(long duracao, double metrica) {
+      this.quantidade++;
+      this.duracaoTotal += duracao;
+      this.metrica += metrica;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%-30s %10d %14.3f %14.3f %18.1f%n", chave, quantidade,
+          duracaoTotal / 1e6, duracaoTotal / 1e3 / quantidade, metrica);
+    }
+  }
+
+}
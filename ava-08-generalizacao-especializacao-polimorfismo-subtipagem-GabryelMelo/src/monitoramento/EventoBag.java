@@ -0,0 +1,25 @@
+package monitoramento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("imobiliaria.Bag")
+@Label("Varredura de Bag")
+@Category("Imobiliária")
+@Description("Varredura linear da bolsa de locações de uma imobiliária.")
+@Threshold("20 us")
+public class EventoBag extends jdk.jfr.Event {
+
+  @Label("Operação")
+  public String operacao;
+
+  @Label("Capacidade")
+  public int capacidade;
+
+  @Label("Objetos na Bolsa")
+  public int objetos;
+
+}
@@ -0,0 +1,26 @@
+package monitoramento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("imobiliaria.Cobranca")
+@Label("Pagamento de Cobrança")
+@Category("Imobiliária")
+@Description("Quitação de uma cobrança mensal sobre as locações ativas.")
+public class EventoCobranca extends jdk.jfr.Event {
+
+  @Label("Período")
+  public String periodo;
+
+  @Label("Locações Cobradas")
+  public int locacoesCobradas;
+
+  @Label("Valor Arrecadado")
+  public double valorArrecadado;
+
+  @Label("Dias de Atraso")
+  public int atraso;
+
+}
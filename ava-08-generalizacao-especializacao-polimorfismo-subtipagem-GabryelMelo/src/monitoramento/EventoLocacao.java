@@ -0,0 +1,26 @@
+package monitoramento;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("imobiliaria.Locacao")
+@Label("Contrato de Locação")
+@Category("Imobiliária")
+@Description("Contratação ou renovação de uma locação.")
+public class EventoLocacao extends jdk.jfr.Event {
+
+  @Label("Operação")
+  public String operacao;
+
+  @Label("Tipo")
+  public String tipo;
+
+  @Label("Endereço")
+  public String endereco;
+
+  @Label("Prazo")
+  public int prazo;
+
+}
@@ -0,0 +1,23 @@
+package monitoramento;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Estado do JFR na JVM atual.
+ */
+public final class Gravacao {
+
+  private Gravacao() {
+  }
+
+  /**
+   * Verifica se o JFR já foi iniciado, por -XX:StartFlightRecording ou jcmd JFR.start.
+   * Antes disso os eventos não são criados, pois o primeiro uso de uma classe de
+   * evento inicializa os metadados do JFR e atrasa a primeira cobrança.
+   * @return true se os eventos podem ser gravados.
+   */
+  public static boolean ativa() {
+    return FlightRecorder.isInitialized();
+  }
+
+}
@@ -0,0 +1,208 @@
+package simulacao;
+
+import distribuido.Coordenador;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import model.imobiliaria.Cobranca;
+import model.imobiliaria.Imobiliaria;
+import model.imobiliaria.Locacao;
+import model.imobiliaria.LocacaoComercial;
+import model.imobiliaria.Renovacao;
+import util.Bag;
+
+/**
+ * Faturamento particionado de uma carteira sintética. A carteira é gerada em lotes e
+ * contratada nos trabalhadores pelo {@link Coordenador}; a cada mês os contratos
+ * vencidos são renovados pelo prazo mínimo do tipo e a cobrança é paga, derrubando um
+ * trabalhador no meio. Cada período é conferido contra as mesmas partições processadas
+ * localmente, uma de cada vez.
+ * Uso: java simulacao.FaturamentoParticionado [trabalhadores=4] [locacoes=3000] [meses=12]
+ */
+public final class FaturamentoParticionado {
+
+  private static final long SEMENTE = 42L;
+  private static final int LOTE = 500;
+  private static final double REAJUSTE = 5.0;
+
+  private FaturamentoParticionado() {
+  }
+
+  /**
+   * Confere, antes de iniciar os trabalhadores, se nenhuma partição receberá mais
+   * locações do que uma imobiliária comporta. As locações são geradas uma a uma e
+   * descartadas, apenas para contar quantas caem em cada partição.
+   * @param particoes Quantidade de partições.
+   * @param locacoes  Quantidade total de locações da carteira.
+   * @throws IllegalArgumentException Caso uma partição exceda {@link Imobiliaria#CAPACIDADE}.
+   */
+  public static void verificarCapacidade(int particoes, int locacoes) {
+    if (particoes <= 0) {
+      throw new IllegalArgumentException("São necessários trabalhadores: " + particoes);
+    }
+    int[] quantidades = new int[particoes];
+    Random random = new Random(SEMENTE);
+    for (int i = 0; i < locacoes; i++) {
+      quantidades[Coordenador.particao(gerarLocacao(random, i), particoes)]++;
+    }
+    for (int p = 0; p < particoes; p++) {
+      if (quantidades[p] > Imobiliaria.CAPACIDADE) {
+        throw new IllegalArgumentException("A partição " + p + " receberia " + quantidades[p]
+            + " de " + locacoes + " locações, acima da capacidade de " + Imobiliaria.CAPACIDADE
+            + " por imobiliária. Use mais trabalhadores.");
+      }
+    }
+  }
+
+  private static Locacao gerarLocacao(Random random, int i) {
+    return GeradorCarga.gerarLocacao(random, "Rua " + i);
+  }
+
+  // Todos os contratos começam no primeiro mês, então vencem a cada prazo mínimo.
+  private static int prazo(Locacao locacao) {
+    return locacao instanceof LocacaoComercial ? 6 : 12;
+  }
+
+  private static boolean vence(Locacao locacao, int t) {
+    return t > 0 && t % prazo(locacao) == 0;
+  }
+
+  // Contrata a carteira em lotes, sem mantê-la inteira em memória.
+  private static void contratar(Coordenador coordenador, int locacoes) throws IOException {
+    Random random = new Random(SEMENTE);
+    Bag lote = new Bag(LOTE);
+    for (int i = 0; i < locacoes; i++) {
+      lote.add(gerarLocacao(random, i));
+      if (lote.count() == LOTE || i == locacoes - 1) {
+        coordenador.contratar(lote);
+        lote = new Bag(LOTE);
+      }
+    }
+  }
+
+  // Renova, em lotes, os contratos que vencem no mês t.
+  private static void renovar(Coordenador coordenador, int locacoes, int t) throws IOException {
+    Random random = new Random(SEMENTE);
+    Bag lote = new Bag(LOTE);
+    for (int i = 0; i < locacoes; i++) {
+      Locacao locacao = gerarLocacao(random, i);
+      if (vence(locacao, t)) {
+        lote.add(new Renovacao(locacao, REAJUSTE, locacao.getExtra(), prazo(locacao)));
+      }
+      if (lote.count() == LOTE || (i == locacoes - 1 && lote.count() > 0)) {
+        coordenador.renovar(lote);
+        lote = new Bag(LOTE);
+      }
+    }
+  }
+
+  /**
+   * Executa o faturamento particionado em vários processos e confere cada período
+   * contra as mesmas partições processadas localmente.
+   * @param args Quantidade de trabalhadores, de locações e de meses, todos opcionais.
+   * @throws IOException Caso os trabalhadores não possam ser iniciados ou consultados.
+   */
+  public static void main(String[] args) throws IOException {
+    int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+    int locacoes = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+    int meses = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+    try {
+      verificarCapacidade(quantidade, locacoes);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.exit(1);
+    }
+    double[] distribuido = new double[meses];
+    long[] duracoes = new long[meses];
+    Path diretorio = Files.createTempDirectory("particoes");
+    Coordenador coordenador = null;
+    try {
+      coordenador = new Coordenador(quantidade, diretorio);
+      contratar(coordenador, locacoes);
+      for (int t = 0; t < meses; t++) {
+        if (t == meses / 2) {
+          System.out.println("Interrompendo o trabalhador 0");
+          coordenador.interromper(0);
+        }
+        long antes = System.nanoTime();
+        renovar(coordenador, locacoes, t);
+        distribuido[t] = coordenador.novaCobranca(ano(t), mes(t), atraso(t));
+        duracoes[t] = System.nanoTime() - antes;
+      }
+    } finally {
+      if (coordenador != null) {
+        coordenador.encerrar();
+      }
+      for (File arquivo : diretorio.toFile().listFiles()) {
+        arquivo.delete();
+      }
+      diretorio.toFile().delete();
+    }
+    double[] esperado = referencia(quantidade, locacoes, meses);
+    int divergencias = 0;
+    for (int t = 0; t < meses; t++) {
+      boolean confere = distribuido[t] == esperado[t];
+      if (!confere) {
+        divergencias++;
+      }
+      System.out.printf("%2d/%d: %14.2f em %6.1f ms %s%n", mes(t), ano(t), distribuido[t],
+          duracoes[t] / 1e6, confere ? "" : "DIVERGE de " + esperado[t]);
+    }
+    System.out.println("Divergências: " + divergencias);
+    if (divergencias > 0) {
+      System.exit(1);
+    }
+  }
+
+  // Processa localmente as mesmas contratações, renovações e cobranças, uma partição
+  // de cada vez, somando as partições na mesma ordem do coordenador.
+  private static double[] referencia(int particoes, int locacoes, int meses) {
+    double[] totais = new double[meses];
+    for (int p = 0; p < particoes; p++) {
+      Imobiliaria local = new Imobiliaria("Partição " + p);
+      Bag contratadas = new Bag(Imobiliaria.CAPACIDADE);
+      Random random = new Random(SEMENTE);
+      for (int i = 0; i < locacoes; i++) {
+        Locacao locacao = gerarLocacao(random, i);
+        if (Coordenador.particao(locacao, particoes) == p) {
+          GeradorCarga.contratar(local, locacao);
+          contratadas.add(locacao);
+        }
+      }
+      Object[] carteira = contratadas.toArray();
+      for (int t = 0; t < meses; t++) {
+        Bag renovacoes = new Bag(Imobiliaria.CAPACIDADE);
+        for (Object o : carteira) {
+          Locacao locacao = (Locacao) o;
+          if (vence(locacao, t)) {
+            renovacoes.add(new Renovacao(locacao, REAJUSTE, locacao.getExtra(), prazo(locacao)));
+          }
+        }
+        local.renovar(renovacoes);
+        Cobranca cobranca = local.novaCobranca(ano(t), mes(t));
+        if (atraso(t) > 0) {
+          cobranca.pagar(atraso(t));
+        } else {
+          cobranca.pagar();
+        }
+        totais[t] += cobranca.getValorArrecadado();
+      }
+    }
+    return totais;
+  }
+
+  private static int ano(int t) {
+    return 2020 + t / 12;
+  }
+
+  private static int mes(int t) {
+    return t % 12 + 1;
+  }
+
+  private static int atraso(int t) {
+    return t % 4 == 3 ? 2 : 0;
+  }
+
+}
@@ -0,0 +1,365 @@
+package simulacao;
+
+import java.util.Arrays;
+import java.util.Random;
+import model.imobiliaria.Cobranca;
+import model.imobiliaria.EtapasCobranca;
+import model.imobiliaria.Imobiliaria;
+import model.imobiliaria.Locacao;
+import model.imobiliaria.LocacaoApartamento;
+import model.imobiliaria.LocacaoComercial;
+import model.imobiliaria.LocacaoResidencial;
+import model.imobiliaria.Renovacao;
+import util.Bag;
+import util.LongBag;
+
+/**
+ * Gerador de carga determinístico a partir do cenário do App.
+ * Contrata N locações, executa anos de cobranças, pagamentos com atraso e
+ * renovações, confere cada resultado contra um modelo de referência independente
+ * e mede vazão, latência das cobranças e uso de memória.
+ * Uso: java simulacao.GeradorCarga [locacoes=3000] [anos=5] [semente=42]
+ */
+public class GeradorCarga {
+
+  private static final int LOCACOES_POR_IMOBILIARIA = Imobiliaria.CAPACIDADE;
+  private static final int ANO_INICIAL = 2020;
+
+  private final Random random;
+  private final int anos;
+  private final Imobiliaria[] imobiliarias;
+  private final Locacao[] locacoes;
+  private final Referencia[] referencias;
+  private final int[] inicio;
+  private final LongBag latencias;
+  private final EtapasCobranca etapas = new EtapasCobranca();
+  private long pagamentos;
+  private long renovacoes;
+  private int divergencias;
+  private long memoriaMaxima;
+
+  /**
+   * Construtor do gerador de carga.
+   * @param quantidade Quantidade de locações geradas.
+   * @param anos       Anos de cobranças simulados.
+   * @param semente    Semente do gerador pseudoaleatório.
+   */
+  public GeradorCarga(int quantidade, int anos, long semente) {
+    this.random = new Random(semente);
+    this.anos = anos;
+    this.imobiliarias = new Imobiliaria[(quantidade + LOCACOES_POR_IMOBILIARIA - 1)
+        / LOCACOES_POR_IMOBILIARIA];
+    for (int i = 0; i < imobiliarias.length; i++) {
+      imobiliarias[i] = new Imobiliaria("Carteira " + i);
+    }
+    this.locacoes = new Locacao[quantidade];
+    this.referencias = new Referencia[quantidade];
+    this.inicio = new int[quantidade];
+    for (int i = 0; i < quantidade; i++) {
+      this.gerarLocacao(i);
+    }
+    this.latencias = new LongBag(imobiliarias.length * anos * 12);
+  }
+
+  private void gerarLocacao(int i) {
+    String endereco = "Rua " + (i % LOCACOES_POR_IMOBILIARIA) + ", "
+        + (i / LOCACOES_POR_IMOBILIARIA);
+    locacoes[i] = gerarLocacao(random, endereco);
+    // 'R'esidencial, 'A'partamento ou 'C'omercial
+    referencias[i] = new Referencia(locacoes[i].getTipo().charAt(0), locacoes[i].getValor(),
+        locacoes[i].getExtra());
+    inicio[i] = random.nextInt(12); // contratos começam ao longo do primeiro ano
+  }
+
+  /**
+   * Gera uma locação sintética, ainda não contratada: metade residencial,
+   * 30% apartamento e 20% comercial, com valor e extra sorteados.
+   * @param random   Gerador pseudoaleatório, que avança a cada locação gerada.
+   * @param endereco Endereço da locação.
+   * @return A locação gerada.
+   */
+  public static Locacao gerarLocacao(Random random, String endereco) {
+    int quartos = random.nextInt(5);
+    int garagem = random.nextInt(3);
+    double valor = 500 + 10 * random.nextInt(451);
+    double extra = 10 * random.nextInt(81);
+    int sorteio = random.nextInt(10);
+    if (sorteio < 5) {
+      return new LocacaoResidencial(endereco, quartos, garagem, valor, extra);
+    } else if (sorteio < 8) {
+      return new LocacaoApartamento(endereco, quartos, garagem, valor, extra);
+    }
+    return new LocacaoComercial(endereco, 0, garagem, valor, extra);
+  }
+
+  /**
+   * Contrata uma locação usando o prazo mínimo do seu tipo.
+   * @param imobiliaria A imobiliária contratante.
+   * @param locacao     A locação a ser contratada.
+   */
+  public static void contratar(Imobiliaria imobiliaria, Locacao locacao) {
+    if (locacao instanceof LocacaoComercial) {
+      imobiliaria.contratar((LocacaoComercial) locacao);
+    } else {
+      imobiliaria.contratar(locacao);
+    }
+  }
+
+  /**
+   * Executa todos os meses da simulação.
+   */
+  public void executar() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int t = 0; t < anos * 12; t++) {
+      int ano = ANO_INICIAL + t / 12;
+      int mes = t % 12 + 1;
+      this.contratar(t);
+      for (int p = 0; p < imobiliarias.length; p++) {
+        this.cobrar(p, ano, mes);
+        this.renovar(p);
+      }
+      if (mes == 12) {
+        this.conferirCarteiras(ano);
+      }
+      memoriaMaxima = Math.max(memoriaMaxima, runtime.totalMemory() - runtime.freeMemory());
+    }
+  }
+
+  private void contratar(int t) {
+    for (int i = 0; i < locacoes.length; i++) {
+      if (inicio[i] != t) {
+        continue;
+      }
+      contratar(imobiliarias[i / LOCACOES_POR_IMOBILIARIA], locacoes[i]);
+      referencias[i].contratar();
+      this.conferir(locacoes[i].getMeses(), referencias[i].meses, "prazo contratado", i);
+    }
+  }
+
+  private void cobrar(int p, int ano, int mes) {
+    int atraso = random.nextInt(5) == 0 ? 1 + random.nextInt(10) : 0;
+    double esperado = 0.0;
+    for (int i = p * LOCACOES_POR_IMOBILIARIA; i < fimDaCarteira(p); i++) {
+      if (referencias[i].meses > 0) {
+        esperado += referencias[i].pagar(atraso);
+        pagamentos++;
+      }
+    }
+    Cobranca cobranca = imobiliarias[p].novaCobranca(ano, mes);
+    long antes = System.nanoTime();
+    if (atraso > 0) {
+      cobranca.pagar(atraso);
+    } else {
+      cobranca.pagar();
+    }
+    latencias.add(System.nanoTime() - antes);
+    etapas.acumular(cobranca.getEtapas());
+    this.conferir(cobranca.getValorArrecadado(), esperado,
+        "arrecadado em " + cobranca.getPeriodo(), p);
+  }
+
+  private void renovar(int p) {
+    Bag lote = new Bag(LOCACOES_POR_IMOBILIARIA);
+    int quantidadeLote = 0;
+    for (int i = p * LOCACOES_POR_IMOBILIARIA; i < fimDaCarteira(p); i++) {
+      Referencia referencia = referencias[i];
+      if (!referencia.contratada || referencia.meses > 0 || random.nextInt(10) < 3) {
+        continue;
+      }
+      double reajuste = random.nextInt(101) / 10.0;
+      double extra = 10 * random.nextInt(81);
+      int prazo = referencia.tipo == 'C'
+          ? 6 * (1 + random.nextInt(4))
+          : 12 * (1 + random.nextInt(3));
+      boolean invalida = random.nextInt(50) == 0;
+      if (invalida) {
+        prazo = 3; // abaixo do mínimo de qualquer tipo, deve ser rejeitada
+      }
+      if (!invalida && random.nextBoolean()) {
+        if (locacoes[i] instanceof LocacaoComercial) {
+          imobiliarias[p].renovar((LocacaoComercial) locacoes[i], reajuste, extra, prazo);
+        } else {
+          imobiliarias[p].renovar(locacoes[i], reajuste, extra, prazo);
+        }
+        referencia.renovar(reajuste, extra, prazo);
+        renovacoes++;
+        this.conferirLocacao(i);
+        continue;
+      }
+      lote.add(new Renovacao(locacoes[i], reajuste, extra, prazo));
+      quantidadeLote++;
+      if (!invalida) {
+        referencia.renovar(reajuste, extra, prazo);
+      }
+    }
+    if (quantidadeLote == 0) {
+      return;
+    }
+    imobiliarias[p].renovar(lote);
+    for (Object o : lote.toArray()) {
+      Renovacao renovacao = (Renovacao) o;
+      boolean invalida = renovacao.getPrazo() == 3;
+      if (renovacao.isRenovada() == invalida) {
+        this.divergencia("renovação em lote " + (invalida ? "aceitou" : "rejeitou")
+            + " " + renovacao.getLocacao().getEndereco() + ": " + renovacao.getErro());
+      }
+      if (renovacao.isRenovada()) {
+        renovacoes++;
+      }
+    }
+  }
+
+  private void conferirCarteiras(int ano) {
+    for (int p = 0; p < imobiliarias.length; p++) {
+      if (!imobiliarias[p].verificarIndicadores()) {
+        this.divergencia("indicadores da carteira " + p + " em " + ano);
+      }
+      double esperado = 0.0;
+      for (int i = p * LOCACOES_POR_IMOBILIARIA; i < fimDaCarteira(p); i++) {
+        this.conferirLocacao(i);
+        if (referencias[i].meses > 0) {
+          esperado += referencias[i].valorTotal();
+        }
+      }
+      this.conferir(imobiliarias[p].getValorEstimado(), esperado, "valor estimado em " + ano, p);
+    }
+  }
+
+  private void conferirLocacao(int i) {
+    this.conferir(locacoes[i].getMeses(), referencias[i].meses, "meses", i);
+    this.conferir(locacoes[i].getValor(), referencias[i].valor, "valor", i);
+    this.conferir(locacoes[i].getExtra(), referencias[i].extra, "extra", i);
+  }
+
+  private int fimDaCarteira(int p) {
+    return Math.min(locacoes.length, (p + 1) * LOCACOES_POR_IMOBILIARIA);
+  }
+
+  private void conferir(double obtido, double esperado, String descricao, int indice) {
+    if (Math.abs(obtido - esperado) > 1e-6 * Math.max(1.0, Math.abs(esperado))) {
+      this.divergencia(descricao + " [" + indice + "]: obtido " + obtido
+          + ", esperado " + esperado);
+    }
+  }
+
+  private void divergencia(String descricao) {
+    if (divergencias < 20) {
+      System.err.println("DIVERGÊNCIA " + descricao);
+    }
+    divergencias++;
+  }
+
+  public int getDivergencias() {
+    return divergencias;
+  }
+
+  /**
+   * Monta o relatório de vazão, latência e memória da simulação.
+   * @param duracao Duração total da simulação, em nanossegundos.
+   * @return O relatório.
+   */
+  public String relatorio(long duracao) {
+    long[] ordenadas = latencias.toArray();
+    Arrays.sort(ordenadas);
+    Runtime runtime = Runtime.getRuntime();
+    return String.format("Locações: %d em %d imobiliária(s), %d ano(s)%n",
+        locacoes.length, imobiliarias.length, anos)
+      + String.format("Pagamentos: %d, renovações: %d, cobranças: %d%n",
+        pagamentos, renovacoes, latencias.count())
+      + String.format("Duração: %.1f ms, vazão: %.0f pagamentos/s%n",
+        duracao / 1e6, pagamentos / (duracao / 1e9))
+      + String.format("Latência de Cobranca.pagar (us): p50 %.1f, p95 %.1f, p99 %.1f, máx %.1f%n",
+        percentil(ordenadas, 50), percentil(ordenadas, 95), percentil(ordenadas, 99),
+        percentil(ordenadas, 100))
+      + String.format("Heap: máximo observado %.1f MB, atual %.1f MB%n",
+        memoriaMaxima / 1048576.0, (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0)
+      + "Etapas de Cobranca.pagar:\n" + etapas
+      + "Divergências: " + divergencias + "\n";
+  }
+
+  private static double percentil(long[] ordenadas, int p) {
+    if (ordenadas.length == 0) {
+      return 0.0;
+    }
+    int i = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+    return ordenadas[Math.max(0, i)] / 1e3;
+  }
+
+  /**
+   * Ponto de entrada do gerador de carga.
+   * @param args Quantidade de locações, anos simulados e semente, todos opcionais.
+   */
+  public static void main(String[] args) {
+    int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+    int anos = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    long semente = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+    long antes = System.nanoTime();
+    GeradorCarga gerador = new GeradorCarga(quantidade, anos, semente);
+    gerador.executar();
+    System.out.print(gerador.relatorio(System.nanoTime() - antes));
+    if (gerador.getDivergencias() > 0) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Modelo de referência de uma locação, escrito a partir das regras
+   * comentadas no App e sem reutilizar o código das classes de locação.
+   */
+  private static class Referencia {
+
+    private final char tipo;
+    private double valor;
+    private double extra;
+    private int meses;
+    private int prazo;
+    private boolean contratada;
+
+    Referencia(char tipo, double valor, double extra) {
+      this.tipo = tipo;
+      this.valor = valor;
+      this.extra = extra;
+    }
+
+    void contratar() {
+      contratada = true;
+      prazo = tipo == 'C' ? 6 : 12;
+      meses = prazo;
+    }
+
+    void renovar(double reajuste, double extra, int prazo) {
+      this.valor = this.valor * (1 + reajuste / 100.0);
+      this.extra = extra;
+      this.prazo = prazo;
+      this.meses = prazo;
+    }
+
+    double valorTotal() {
+      switch (tipo) {
+        case 'A':
+          return valor + extra; // condomínio
+        case 'C':
+          return meses == prazo ? valor + extra : valor; // taxa só na primeira parcela
+        default:
+          return valor;
+      }
+    }
+
+    double pagar(int atraso) {
+      double total = valorTotal();
+      if (atraso > 0) {
+        if (tipo == 'C') {
+          total = total * (1.05 + 0.01 * atraso);
+        } else {
+          total += valor * (0.03 + 0.01 * atraso);
+          if (tipo == 'A') {
+            total += 0.10 * extra;
+          }
+        }
+      }
+      meses--;
+      return total;
+    }
+  }
+
+}
@@ -1,8 +1,18 @@
 package util;
 
-public class Bag {
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 
-  private Object[] objetos;
+public class Bag implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private transient Object[] objetos;
+  private int quantidade;
+  private int livre; // nenhuma posição antes desta está vazia
 
   /**
    * Cria uma bolsa de objetos.
@@ -25,13 +35,7 @@ public class Bag {
    * @return a quantidade de objetos na bolsa.
    */
   public int count() {
-    int count = 0;
-    for (Object o : this.objetos) {
-      if (o != null) {
-        count++;
-      }
-    }
-    return count;
+    return this.quantidade;
   }
 
   /**
@@ -40,12 +44,14 @@ public class Bag {
    * @throws FullBagException se a bolsa estiver cheia.
    */
   public void add(Object o) throws FullBagException {
-    if (this.count() == this.objetos.length + 1) {
+    if (this.quantidade == this.objetos.length) {
       throw new FullBagException(this.objetos.length);
     }
-    for (int i = 0; i < this.objetos.length; i++) {
+    for (int i = this.livre; i < this.objetos.length; i++) {
       if (this.objetos[i] == null) {
         this.objetos[i] = o;
+        this.quantidade++;
+        this.livre = i + 1;
         return;
       }
     }
@@ -57,8 +63,8 @@ public class Bag {
    * @return true se o objeto estiver na bolsa e false caso contrário.
    */
   public boolean has(Object o) {
-    for (Object e : this.objetos) {
-      if (o.equals(e)) {
+    for (int i = 0; i < this.objetos.length; i++) {
+      if (o.equals(this.objetos[i])) {
         return true;
       }
     }
@@ -71,8 +77,10 @@ public class Bag {
    */
   public void remove(Object o) {
     for (int i = 0; i < objetos.length; i++) {
-      if (this.objetos[i].equals(o)) {
+      if (o.equals(this.objetos[i])) {
         this.objetos[i] = null;
+        this.quantidade--;
+        this.livre = Math.min(this.livre, i);
       }
     }
   }
@@ -82,8 +90,9 @@ public class Bag {
    * @return um array com apenas os objetos da bolsa.
    */
   public Object[] toArray() {
-    Object[] array = new Object[this.count()];
-    for (int i = 0, c = 0; i < this.objetos.length; i++) {
+    Object[] array = new Object[this.quantidade];
+    int i = 0;
+    for (int c = 0; c < array.length; i++) {
       if (this.objetos[i] != null) {
         array[c++] = this.objetos[i];
       }
@@ -91,6 +100,39 @@ public class Bag {
     return array;
   }
 
+  /**
+   * Grava apenas a capacidade e os objetos presentes, sem as posições vazias.
+   * @param saida Fluxo de saída da serialização.
+   * @throws IOException Caso a gravação falhe.
+   */
+  private void writeObject(ObjectOutputStream saida) throws IOException {
+    saida.defaultWriteObject();
+    saida.writeInt(this.objetos.length);
+    for (Object o : this.toArray()) {
+      saida.writeObject(o);
+    }
+  }
+
+  /**
+   * Lê a bolsa gravada por writeObject, com os objetos nas primeiras posições.
+   * @param entrada Fluxo de entrada da serialização.
+   * @throws IOException            Caso a leitura falhe ou a bolsa seja inválida.
+   * @throws ClassNotFoundException Caso a classe de um objeto não seja encontrada.
+   */
+  private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+    entrada.defaultReadObject();
+    int capacidade = entrada.readInt();
+    if (this.quantidade < 0 || capacidade < this.quantidade) {
+      throw new InvalidObjectException("Bolsa com " + this.quantidade
+        + " objetos e capacidade " + capacidade);
+    }
+    this.objetos = new Object[capacidade];
+    for (int i = 0; i < this.quantidade; i++) {
+      this.objetos[i] = entrada.readObject();
+    }
+    this.livre = this.quantidade;
+  }
+
   @Override
   public String toString() {
     String s = "Bag content:\n";
@@ -0,0 +1,107 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Bolsa de valores double, com a mesma semântica da {@link Bag}, mas sem
+ * objetos intermediários: os valores ficam contíguos no início do vetor.
+ * Os valores são comparados como em Double.equals.
+ */
+public class DoubleBag {
+
+  private final double[] valores;
+  private int quantidade;
+
+  /**
+   * Cria uma bolsa de valores double.
+   * @param capacidade Capacidade da bolsa.
+   */
+  public DoubleBag(int capacidade) {
+    this.valores = new double[capacidade];
+  }
+
+  /**
+   * Verifica se a bolsa está vazia.
+   * @return true se a bolsa estiver vazia ou false caso contrário.
+   */
+  public boolean isEmpty() {
+    return this.quantidade == 0;
+  }
+
+  /**
+   * Conta quantos valores estão na bolsa.
+   * @return a quantidade de valores na bolsa.
+   */
+  public int count() {
+    return this.quantidade;
+  }
+
+  /**
+   * Adiciona um valor à bolsa.
+   * @param v O valor.
+   * @throws FullBagException se a bolsa estiver cheia.
+   */
+  public void add(double v) throws FullBagException {
+    if (this.quantidade == this.valores.length) {
+      throw new FullBagException(this.valores.length);
+    }
+    this.valores[this.quantidade++] = v;
+  }
+
+  /**
+   * Retorna o valor de uma posição, na ordem em que os valores foram adicionados.
+   * @param i Posição, de 0 até count() - 1.
+   * @return o valor da posição.
+   */
+  public double get(int i) {
+    if (i < 0 || i >= this.quantidade) {
+      throw new IndexOutOfBoundsException(i);
+    }
+    return this.valores[i];
+  }
+
+  /**
+   * Verifica se um dado valor está na bolsa.
+   * @param v valor a ser verificado.
+   * @return true se o valor estiver na bolsa e false caso contrário.
+   */
+  public boolean has(double v) {
+    for (int i = 0; i < this.quantidade; i++) {
+      if (Double.compare(this.valores[i], v) == 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Remove todas as ocorrências de um valor da bolsa.
+   * @param v O valor a ser removido.
+   */
+  public void remove(double v) {
+    int c = 0;
+    for (int i = 0; i < this.quantidade; i++) {
+      if (Double.compare(this.valores[i], v) != 0) {
+        this.valores[c++] = this.valores[i];
+      }
+    }
+    this.quantidade = c;
+  }
+
+  /**
+   * Converte a bolsa em um array de valores.
+   * @return um array com apenas os valores da bolsa.
+   */
+  public double[] toArray() {
+    return Arrays.copyOf(this.valores, this.quantidade);
+  }
+
+  @Override
+  public String toString() {
+    String s = "Bag content:\n";
+    for (int i = 0; i < this.quantidade; i++) {
+      s += this.valores[i] + "\n";
+    }
+    return s;
+  }
+}
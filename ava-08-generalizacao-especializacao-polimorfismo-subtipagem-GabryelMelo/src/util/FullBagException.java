@@ -1,6 +1,6 @@
 package util;
 
-class FullBagException extends RuntimeException {
+public class FullBagException extends RuntimeException {
 
   FullBagException(int cap) {
     super("A bolsa está na capacidade máxima de " + cap + " objetos");
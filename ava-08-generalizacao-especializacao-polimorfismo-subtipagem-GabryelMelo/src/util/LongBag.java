@@ -0,0 +1,106 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Bolsa de valores long, com a mesma semântica da {@link Bag}, mas sem
+ * objetos intermediários: os valores ficam contíguos no início do vetor.
+ */
+public class LongBag {
+
+  private final long[] valores;
+  private int quantidade;
+
+  /**
+   * Cria uma bolsa de valores long.
+   * @param capacidade Capacidade da bolsa.
+   */
+  public LongBag(int capacidade) {
+    this.valores = new long[capacidade];
+  }
+
+  /**
+   * Verifica se a bolsa está vazia.
+   * @return true se a bolsa estiver vazia ou false caso contrário.
+   */
+  public boolean isEmpty() {
+    return this.quantidade == 0;
+  }
+
+  /**
+   * Conta quantos valores estão na bolsa.
+   * @return a quantidade de valores na bolsa.
+   */
+  public int count() {
+    return this.quantidade;
+  }
+
+  /**
+   * Adiciona um valor à bolsa.
+   * @param v O valor.
+   * @throws FullBagException se a bolsa estiver cheia.
+   */
+  public void add(long v) throws FullBagException {
+    if (this.quantidade == this.valores.length) {
+      throw new FullBagException(this.valores.length);
+    }
+    this.valores[this.quantidade++] = v;
+  }
+
+  /**
+   * Retorna o valor de uma posição, na ordem em que os valores foram adicionados.
+   * @param i Posição, de 0 até count() - 1.
+   * @return o valor da posição.
+   */
+  public long get(int i) {
+    if (i < 0 || i >= this.quantidade) {
+      throw new IndexOutOfBoundsException(i);
+    }
+    return this.valores[i];
+  }
+
+  /**
+   * Verifica se um dado valor está na bolsa.
+   * @param v valor a ser verificado.
+   * @return true se o valor estiver na bolsa e false caso contrário.
+   */
+  public boolean has(long v) {
+    for (int i = 0; i < this.quantidade; i++) {
+      if (this.valores[i] == v) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Remove todas as ocorrências de um valor da bolsa.
+   * @param v O valor a ser removido.
+   */
+  public void remove(long v) {
+    int c = 0;
+    for (int i = 0; i < this.quantidade; i++) {
+      if (this.valores[i] != v) {
+        this.valores[c++] = this.valores[i];
+      }
+    }
+    this.quantidade = c;
+  }
+
+  /**
+   * Converte a bolsa em um array de valores.
+   * @return um array com apenas os valores da bolsa.
+   */
+  public long[] toArray() {
+    return Arrays.copyOf(this.valores, this.quantidade);
+  }
+
+  @Override
+  public String toString() {
+    String s = "Bag content:\n";
+    for (int i = 0; i < this.quantidade; i++) {
+      s += this.valores[i] + "\n";
+    }
+    return s;
+  }
+}